@@ -1,81 +1,455 @@
 package core.board;
 
+import core.game.Move;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 位棋盘实现：黑白双方各用一组 long 位集表示 19x19 棋盘。
+ * 每行占 STRIDE(=20) 位，第 20 位为恒为 0 的哨兵列，
+ * 这样横向、斜向的整体移位不会从一行末尾“串”到下一行开头。
+ */
 public class Board {
     public static final int SIZE = 19;
-    private PieceColor[][] board;
+    private static final int STRIDE = SIZE + 1;
+    private static final int WORDS = (SIZE * STRIDE + 63) / 64;
+    // 四个方向在位布局中的步长：横、纵、斜、反斜
+    private static final int[] STEPS = {1, STRIDE, STRIDE + 1, STRIDE - 1};
+    // Zobrist 随机键：每种颜色每个格点一个，另按已落子数区分行棋方/回合阶段
+    private static final long[][] ZOBRIST = new long[2][SIZE * SIZE];
+    private static final long[] STONE_COUNT_KEYS = new long[SIZE * SIZE + 1];
+
+    // 路（六格窗口）：四个方向上所有完整落在棋盘内的连续六格
+    public static final int WINDOW_LENGTH = 6;
+    private static final int[][] WINDOW_DIRS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    public static final int WINDOW_COUNT;
+    // WINDOW_AT[dir][cell]：以 cell 为起点、沿 dir 方向的路编号，不存在为 -1
+    private static final int[][] WINDOW_AT = new int[WINDOW_DIRS.length][SIZE * SIZE];
+    // CELL_WINDOWS[cell]：经过 cell 的所有路编号（最多 24 条）
+    private static final int[][] CELL_WINDOWS = new int[SIZE * SIZE][];
+    // WINDOW_CELLS[w*6+k]：第 w 条路上第 k 格的格点序号
+    private static final int[] WINDOW_CELLS;
+    private static final int MIN_FRONTIER_DIST = 2;
+    private static final int MAX_FRONTIER_DIST = 3;
+    // 每个格点周围 (2*MAX_FRONTIER_DIST+1)^2 范围内的其他格点：格点序号 | 位序号 << 9 | 切比雪夫距离 << 18
+    private static final int[][] NEIGHBOURS = new int[SIZE * SIZE][];
+
+    static {
+        int count = 0;
+        int[] through = new int[SIZE * SIZE];
+        for (int d = 0; d < WINDOW_DIRS.length; d++) {
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c < SIZE; c++) {
+                    int er = r + (WINDOW_LENGTH - 1) * WINDOW_DIRS[d][0];
+                    int ec = c + (WINDOW_LENGTH - 1) * WINDOW_DIRS[d][1];
+                    boolean inside = er >= 0 && er < SIZE && ec >= 0 && ec < SIZE;
+                    WINDOW_AT[d][r * SIZE + c] = inside ? count++ : -1;
+                    if (inside) {
+                        for (int k = 0; k < WINDOW_LENGTH; k++) {
+                            through[(r + k * WINDOW_DIRS[d][0]) * SIZE + c + k * WINDOW_DIRS[d][1]]++;
+                        }
+                    }
+                }
+            }
+        }
+        WINDOW_COUNT = count;
+        WINDOW_CELLS = new int[count * WINDOW_LENGTH];
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            CELL_WINDOWS[i] = new int[through[i]];
+            through[i] = 0;
+        }
+        for (int d = 0; d < WINDOW_DIRS.length; d++) {
+            for (int i = 0; i < SIZE * SIZE; i++) {
+                int w = WINDOW_AT[d][i];
+                if (w < 0) continue;
+                for (int k = 0; k < WINDOW_LENGTH; k++) {
+                    int cell = i + k * (WINDOW_DIRS[d][0] * SIZE + WINDOW_DIRS[d][1]);
+                    CELL_WINDOWS[cell][through[cell]++] = w;
+                    WINDOW_CELLS[w * WINDOW_LENGTH + k] = cell;
+                }
+            }
+        }
+    }
+
+    static {
+        int[] buffer = new int[(2 * MAX_FRONTIER_DIST + 1) * (2 * MAX_FRONTIER_DIST + 1)];
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int n = 0;
+                for (int r = Math.max(0, row - MAX_FRONTIER_DIST); r <= Math.min(SIZE - 1, row + MAX_FRONTIER_DIST); r++) {
+                    for (int c = Math.max(0, col - MAX_FRONTIER_DIST); c <= Math.min(SIZE - 1, col + MAX_FRONTIER_DIST); c++) {
+                        if (r == row && c == col) continue;
+                        int dist = Math.max(Math.abs(r - row), Math.abs(c - col));
+                        buffer[n++] = (r * SIZE + c) | (r * STRIDE + c) << 9 | dist << 18;
+                    }
+                }
+                NEIGHBOURS[row * SIZE + col] = Arrays.copyOf(buffer, n);
+            }
+        }
+    }
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x436F6E6E65637436L);
+        for (int c = 0; c < 2; c++) {
+            for (int i = 0; i < SIZE * SIZE; i++) {
+                ZOBRIST[c][i] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < STONE_COUNT_KEYS.length; i++) {
+            STONE_COUNT_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private final long[] black;
+    private final long[] white;
+    // 落子栈：低 9 位为格点序号 row*SIZE+col，第 9 位为颜色（0 黑 1 白），
+    // 第 10 位表示该手首次形成六连（撤销时据此清除胜者）
+    private static final int WINNING_MOVE_FLAG = 1 << 10;
+    private final int[] history;
     private int moveCount;
+    private long zobrist;
+    private PieceColor winner;
+    // 路表：每条路上黑/白棋子数；openWindows[side][k] 为含 k 个己方棋子且无对方棋子的路数
+    private final byte[][] windowStones;
+    private final int[][] openWindows;
+    // 候选前沿：nearStones[d][cell] 为距 cell（切比雪夫距离）不超过 d 的棋子数，
+    // frontier[d] 为“空且 nearStones>0”的格点位集，d 取 2 或 3
+    private final byte[][] nearStones;
+    private final long[][] frontier;
 
     public Board() {
-        board = new PieceColor[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                board[i][j] = PieceColor.EMPTY;
-            }
+        black = new long[WORDS];
+        white = new long[WORDS];
+        history = new int[SIZE * SIZE];
+        windowStones = new byte[2][WINDOW_COUNT];
+        openWindows = new int[2][WINDOW_LENGTH + 1];
+        openWindows[0][0] = WINDOW_COUNT;
+        openWindows[1][0] = WINDOW_COUNT;
+        nearStones = new byte[MAX_FRONTIER_DIST + 1][];
+        frontier = new long[MAX_FRONTIER_DIST + 1][];
+        for (int d = MIN_FRONTIER_DIST; d <= MAX_FRONTIER_DIST; d++) {
+            nearStones[d] = new byte[SIZE * SIZE];
+            frontier[d] = new long[WORDS];
         }
         moveCount = 0;
     }
 
     public boolean makeMove(int row, int col, PieceColor color) {
-        if (isValid(row, col) && board[row][col] == PieceColor.EMPTY) {
-            board[row][col] = color;
-            moveCount++;
+        if (isValid(row, col) && color != PieceColor.EMPTY && get(row, col) == PieceColor.EMPTY) {
+            int bit = row * STRIDE + col;
+            long[] bits = (color == PieceColor.BLACK) ? black : white;
+            int side = (color == PieceColor.BLACK) ? 0 : 1;
+            int cell = row * SIZE + col;
+            bits[bit >>> 6] |= 1L << bit;
+            zobrist ^= ZOBRIST[side][cell];
+            boolean six = updateWindows(cell, side, 1);
+            updateFrontier(row, col, 1);
+            int entry = cell | (side << 9);
+            if (winner == null && six) {
+                winner = color;
+                entry |= WINNING_MOVE_FLAG;
+            }
+            history[moveCount++] = entry;
             return true;
         }
         return false;
     }
 
+    /**
+     * 撤销最后一手落子，必须与 makeMove 的顺序严格相反（后进先出）。
+     * @return 若 (row, col) 不是最后落下的棋子则不做任何修改并返回 false
+     */
+    public boolean unmakeMove(int row, int col) {
+        if (moveCount == 0 || !isValid(row, col)) return false;
+        int entry = history[moveCount - 1];
+        int cell = entry & 0x1FF;
+        if (cell != row * SIZE + col) return false;
+        int side = (entry >>> 9) & 1;
+        if ((entry & WINNING_MOVE_FLAG) != 0) {
+            winner = null;
+        }
+        int bit = row * STRIDE + col;
+        long[] bits = (side == 0) ? black : white;
+        bits[bit >>> 6] &= ~(1L << bit);
+        zobrist ^= ZOBRIST[side][cell];
+        moveCount--;
+        updateWindows(cell, side, -1);
+        updateFrontier(row, col, -1);
+        return true;
+    }
+
+    // 引用计数式维护候选前沿：只访问 (row, col) 周围 7x7 的格点（预先算好的 NEIGHBOURS）
+    private void updateFrontier(int row, int col, int delta) {
+        int bit = row * STRIDE + col;
+        for (int d = MIN_FRONTIER_DIST; d <= MAX_FRONTIER_DIST; d++) {
+            if (delta > 0) {
+                frontier[d][bit >>> 6] &= ~(1L << bit);
+            } else if (nearStones[d][row * SIZE + col] > 0) {
+                frontier[d][bit >>> 6] |= 1L << bit;
+            }
+        }
+        for (int neighbour : NEIGHBOURS[row * SIZE + col]) {
+            int cell = neighbour & 0x1FF;
+            int b = (neighbour >>> 9) & 0x1FF;
+            int word = b >>> 6;
+            long mask = 1L << b;
+            boolean empty = ((black[word] | white[word]) & mask) == 0;
+            for (int d = Math.max(neighbour >>> 18, MIN_FRONTIER_DIST); d <= MAX_FRONTIER_DIST; d++) {
+                int count = nearStones[d][cell] + delta;
+                nearStones[d][cell] = (byte) count;
+                if (count == 0) {
+                    frontier[d][word] &= ~mask;
+                } else if (count == delta && empty) {
+                    frontier[d][word] |= mask;
+                }
+            }
+        }
+    }
+
+    // 只更新经过 cell 的路，并同步维护双方的开放路直方图；返回是否有路被 side 占满（即连成六子）
+    private boolean updateWindows(int cell, int side, int delta) {
+        byte[] own = windowStones[side];
+        byte[] opp = windowStones[1 - side];
+        int[] ownOpen = openWindows[side];
+        int[] oppOpen = openWindows[1 - side];
+        boolean six = false;
+        for (int w : CELL_WINDOWS[cell]) {
+            int before = own[w];
+            int after = before + delta;
+            int enemy = opp[w];
+            own[w] = (byte) after;
+            six |= after == WINDOW_LENGTH;
+            if (enemy == 0) {
+                ownOpen[before]--;
+                ownOpen[after]++;
+            }
+            if (before == 0) {
+                oppOpen[enemy]--;
+            } else if (after == 0) {
+                oppOpen[enemy]++;
+            }
+        }
+        return six;
+    }
+
+    /**
+     * 按整手（一子或两子）落子。两子中任意一子无法落下时整手作废，棋盘保持不变。
+     */
+    public boolean apply(Move move, PieceColor color) {
+        if (!makeMove(move.getRow1(), move.getCol1(), color)) return false;
+        if (move.isFirstMove()) return true;
+        if (makeMove(move.getRow2(), move.getCol2(), color)) return true;
+        unmakeMove(move.getRow1(), move.getCol1());
+        return false;
+    }
+
+    /**
+     * 撤销一次成功的 apply。
+     */
+    public boolean undo(Move move) {
+        if (!move.isFirstMove() && !unmakeMove(move.getRow2(), move.getCol2())) return false;
+        return unmakeMove(move.getRow1(), move.getCol1());
+    }
+
+    /**
+     * 依次撤销落子直到棋盘上只剩 moveCount 手，便于一次回退任意条搜索路径。
+     */
+    public void rollback(int moveCount) {
+        while (this.moveCount > moveCount && this.moveCount > 0) {
+            int cell = history[this.moveCount - 1] & 0x1FF;
+            unmakeMove(cell / SIZE, cell % SIZE);
+        }
+    }
+
     public boolean isValid(int row, int col) {
         return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
     }
 
     public PieceColor get(int row, int col) {
         if (!isValid(row, col)) return PieceColor.EMPTY;
-        return board[row][col];
+        int bit = row * STRIDE + col;
+        long mask = 1L << bit;
+        if ((black[bit >>> 6] & mask) != 0) return PieceColor.BLACK;
+        if ((white[bit >>> 6] & mask) != 0) return PieceColor.WHITE;
+        return PieceColor.EMPTY;
+    }
+
+    /**
+     * 格点的 2 位编码：0 空、1 黑、2 白、3 棋盘外，供查表式棋型识别使用。
+     */
+    public int stoneCode(int row, int col) {
+        if (!isValid(row, col)) return 3;
+        int bit = row * STRIDE + col;
+        return (int) ((black[bit >>> 6] >>> bit) & 1L) | (int) ((white[bit >>> 6] >>> bit) & 1L) << 1;
     }
 
     public boolean checkWin(int row, int col, PieceColor color) {
-        return checkDirection(row, col, 0, 1, color) || // 横向
-               checkDirection(row, col, 1, 0, color) || // 纵向
-               checkDirection(row, col, 1, 1, color) || // 斜向
-               checkDirection(row, col, 1, -1, color);  // 反斜向
+        if (color == PieceColor.EMPTY) return false;
+        long[] bits = (color == PieceColor.BLACK) ? black : white;
+        return checkDirection(bits, row, col, 0, 1) || // 横向
+               checkDirection(bits, row, col, 1, 0) || // 纵向
+               checkDirection(bits, row, col, 1, 1) || // 斜向
+               checkDirection(bits, row, col, 1, -1);  // 反斜向
     }
 
-    private boolean checkDirection(int row, int col, int dr, int dc, PieceColor color) {
+    private boolean checkDirection(long[] bits, int row, int col, int dr, int dc) {
         int count = 1;
-        
+
         for (int i = 1; i < 6; i++) {
             int r = row + i * dr;
             int c = col + i * dc;
-            if (isValid(r, c) && board[r][c] == color) {
+            if (isValid(r, c) && has(bits, r * STRIDE + c)) {
                 count++;
             } else {
                 break;
             }
         }
-        
+
         for (int i = 1; i < 6; i++) {
             int r = row - i * dr;
             int c = col - i * dc;
-            if (isValid(r, c) && board[r][c] == color) {
+            if (isValid(r, c) && has(bits, r * STRIDE + c)) {
                 count++;
             } else {
                 break;
             }
         }
-        
+
         return count >= 6;
     }
 
+    /**
+     * 位并行检测整盘是否存在某方的六连：对每个方向把位集依次移位 1~5 步后按位与，
+     * 结果非零即存在六连（长连同样成立）。
+     */
+    public boolean hasSixInRow(PieceColor color) {
+        if (color == PieceColor.EMPTY) return false;
+        long[] bits = (color == PieceColor.BLACK) ? black : white;
+        for (int step : STEPS) {
+            for (int w = 0; w < WORDS; w++) {
+                long run = bits[w];
+                for (int k = 1; k < 6 && run != 0; k++) {
+                    run &= shifted(bits, w, k * step);
+                }
+                if (run != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    // 返回整组位集右移 n 位之后的第 w 个字
+    private static long shifted(long[] bits, int w, int n) {
+        int q = w + (n >>> 6);
+        int r = n & 63;
+        long lo = q < WORDS ? bits[q] : 0L;
+        if (r == 0) return lo;
+        long hi = q + 1 < WORDS ? bits[q + 1] : 0L;
+        return (lo >>> r) | (hi << (64 - r));
+    }
+
+    private static boolean has(long[] bits, int bit) {
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
     public Board clone() {
         Board newBoard = new Board();
-        for (int i = 0; i < SIZE; i++) {
-            System.arraycopy(this.board[i], 0, newBoard.board[i], 0, SIZE);
+        System.arraycopy(this.black, 0, newBoard.black, 0, WORDS);
+        System.arraycopy(this.white, 0, newBoard.white, 0, WORDS);
+        System.arraycopy(this.history, 0, newBoard.history, 0, moveCount);
+        for (int side = 0; side < 2; side++) {
+            System.arraycopy(this.windowStones[side], 0, newBoard.windowStones[side], 0, WINDOW_COUNT);
+            System.arraycopy(this.openWindows[side], 0, newBoard.openWindows[side], 0, WINDOW_LENGTH + 1);
+        }
+        for (int d = MIN_FRONTIER_DIST; d <= MAX_FRONTIER_DIST; d++) {
+            System.arraycopy(this.nearStones[d], 0, newBoard.nearStones[d], 0, SIZE * SIZE);
+            System.arraycopy(this.frontier[d], 0, newBoard.frontier[d], 0, WORDS);
         }
         newBoard.moveCount = this.moveCount;
+        newBoard.zobrist = this.zobrist;
+        newBoard.winner = this.winner;
         return newBoard;
     }
 
+    /**
+     * 当前局面的 64 位 Zobrist 键，落子时 O(1) 增量维护。
+     * 已落子数也混入键中，因此同一组棋子在不同行棋阶段得到不同的键。
+     */
+    public long hash() {
+        return zobrist ^ STONE_COUNT_KEYS[moveCount];
+    }
+
     public int getMoveCount() {
         return moveCount;
     }
-}
\ No newline at end of file
+
+    /**
+     * 第一个形成六连的一方，尚未分出胜负时返回 null。
+     * 胜负只可能由刚落下的棋子产生，因此在 makeMove 中 O(1) 记录，撤销对应那手时清除。
+     */
+    public PieceColor winner() {
+        return winner;
+    }
+
+    /**
+     * 以 (row, col) 为起点、沿 dir 方向（0 横、1 纵、2 斜、3 反斜）的路编号；路越出棋盘时返回 -1。
+     */
+    public static int windowAt(int row, int col, int dir) {
+        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) return -1;
+        return WINDOW_AT[dir][row * SIZE + col];
+    }
+
+    /**
+     * 第 window 条路上第 k 格（0~5）的格点序号 row*SIZE+col。
+     */
+    public static int windowCell(int window, int k) {
+        return WINDOW_CELLS[window * WINDOW_LENGTH + k];
+    }
+
+    /**
+     * 经过格点 cell（row*SIZE+col）的所有路编号。返回的是共享数组，调用方不得修改。
+     */
+    public static int[] windowsThrough(int cell) {
+        return CELL_WINDOWS[cell];
+    }
+
+    /**
+     * 某条路上指定颜色的棋子数。
+     */
+    public int windowStones(int window, PieceColor color) {
+        if (color == PieceColor.EMPTY) return WINDOW_LENGTH - windowStones[0][window] - windowStones[1][window];
+        return windowStones[color == PieceColor.BLACK ? 0 : 1][window];
+    }
+
+    /**
+     * 含 stones 个 color 方棋子且没有对方棋子的路数（stones 为 0 时即全空的路数）。
+     */
+    public int openWindows(PieceColor color, int stones) {
+        return openWindows[color == PieceColor.BLACK ? 0 : 1][stones];
+    }
+
+    /**
+     * 把距任一棋子 dist（2 或 3）格以内的空位按行优先顺序写入 out（格点序号 row*SIZE+col），
+     * 返回写入个数。out 长度至少为 SIZE*SIZE 时不会越界，调用方可复用同一数组避免分配。
+     */
+    public int frontier(int dist, int[] out) {
+        checkFrontierDist(dist);
+        long[] bits = frontier[dist];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = bits[w];
+            while (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                out[n++] = (bit / STRIDE) * SIZE + bit % STRIDE;
+                word &= word - 1;
+            }
+        }
+        return n;
+    }
+
+    private static void checkFrontierDist(int dist) {
+        if (dist < MIN_FRONTIER_DIST || dist > MAX_FRONTIER_DIST) {
+            throw new IllegalArgumentException("frontier distance must be 2 or 3: " + dist);
+        }
+    }
+}
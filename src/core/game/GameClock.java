@@ -0,0 +1,76 @@
+package core.game;
+
+import core.board.PieceColor;
+
+/**
+ * 对局时钟：每方的主时间、每步加秒，以及可选的每时段步数。
+ * 对局控制方在每步结束后调用 recordMove 扣时，AI 在思考前读取剩余时间。
+ * 界面线程与 AI 线程会同时访问，方法均已同步。
+ */
+public class GameClock {
+    private final long mainTimeMs;
+    private final long incrementMs;
+    private final int movesPerPeriod;  // 0 表示整局只有一个时段（包干制）
+    private final long[] remainingMs = new long[2];
+    private final int[] movesMade = new int[2];
+
+    public GameClock(long mainTimeMs, long incrementMs, int movesPerPeriod) {
+        if (mainTimeMs <= 0 || incrementMs < 0 || movesPerPeriod < 0) {
+            throw new IllegalArgumentException("invalid time control: " + mainTimeMs + "ms+" + incrementMs
+                    + "ms/" + movesPerPeriod);
+        }
+        this.mainTimeMs = mainTimeMs;
+        this.incrementMs = incrementMs;
+        this.movesPerPeriod = movesPerPeriod;
+        remainingMs[0] = mainTimeMs;
+        remainingMs[1] = mainTimeMs;
+    }
+
+    public synchronized long getRemainingMs(PieceColor color) {
+        return remainingMs[index(color)];
+    }
+
+    public long getIncrementMs() {
+        return incrementMs;
+    }
+
+    /**
+     * 本时段内（含当前这步）还需走的步数；包干制返回 0 表示未知
+     */
+    public synchronized int getMovesToGo(PieceColor color) {
+        if (movesPerPeriod == 0) return 0;
+        return movesPerPeriod - movesMade[index(color)] % movesPerPeriod;
+    }
+
+    public synchronized int getMovesMade(PieceColor color) {
+        return movesMade[index(color)];
+    }
+
+    /**
+     * 记录一步的用时：扣除用时、加上加秒，时段结束时补充下一时段的主时间
+     */
+    public synchronized void recordMove(PieceColor color, long elapsedMs) {
+        int i = index(color);
+        remainingMs[i] -= elapsedMs;
+        movesMade[i]++;
+        if (remainingMs[i] >= 0) {
+            remainingMs[i] += incrementMs;
+            if (movesPerPeriod > 0 && movesMade[i] % movesPerPeriod == 0) {
+                remainingMs[i] += mainTimeMs;
+            }
+        }
+    }
+
+    /**
+     * 是否已超时
+     */
+    public synchronized boolean isFlagged(PieceColor color) {
+        return remainingMs[index(color)] < 0;
+    }
+
+    private static int index(PieceColor color) {
+        if (color == PieceColor.BLACK) return 0;
+        if (color == PieceColor.WHITE) return 1;
+        throw new IllegalArgumentException("no clock for " + color);
+    }
+}
@@ -12,9 +12,18 @@ public class GameController {
     private boolean gameOver;
     private PieceColor winner;
     private int moveCount;
+    private GameClock clock;
 
     public GameController(AIPlayer black, AIPlayer white) {
+        this(black, white, null);
+    }
+
+    /**
+     * @param clock 对局时钟，为 null 时不限总时间（AI 按固定的每步时限思考）
+     */
+    public GameController(AIPlayer black, AIPlayer white, GameClock clock) {
         this.board = new Board();
+        this.clock = clock;
         this.blackPlayer = black;
         this.whitePlayer = white;
 
@@ -22,12 +31,25 @@ public class GameController {
         whitePlayer.setColor(PieceColor.WHITE);
         blackPlayer.setBoard(board);
         whitePlayer.setBoard(board);
+        blackPlayer.setGameClock(clock);
+        whitePlayer.setGameClock(clock);
 
         this.currentPlayer = PieceColor.BLACK;
         this.gameOver = false;
         this.moveCount = 0;
     }
 
+    /**
+     * 开启或关闭双方 AI 的后台思考（利用对手的思考时间继续搜索）
+     */
+    public void setPondering(boolean enabled) {
+        blackPlayer.setPondering(enabled);
+        whitePlayer.setPondering(enabled);
+    }
+
+    /**
+     * 下完一整局；结束后关闭双方引擎（{@link AIPlayer#shutdown}），同一组玩家不能再开下一局
+     */
     public void playGame() {
         Move lastMove = null;
         boolean isFirstMoveOfGame = true;  // 标记游戏的第一步
@@ -40,6 +62,7 @@ public class GameController {
 
             // 第一步：黑棋只能下一子
             Move move;
+            long thinkStart = System.currentTimeMillis();
             if (isFirstMoveOfGame) {
                 move = player.findMove(null);  // 黑棋第一步
                 if (move == null || !move.isFirstMove()) {
@@ -52,6 +75,18 @@ public class GameController {
                 move = player.findMove(lastMove);
             }
 
+            if (clock != null) {
+                clock.recordMove(currentPlayer, System.currentTimeMillis() - thinkStart);
+                if (clock.isFlagged(currentPlayer)) {
+                    gameOver = true;
+                    winner = currentPlayer.opposite();
+                    System.out.println("\n═══════════════════════════════");
+                    System.out.println(playerName + " 超时判负！");
+                    System.out.println("═══════════════════════════════");
+                    break;
+                }
+            }
+
             if (move == null) {
                 System.out.println("无效移动，游戏结束");
                 break;
@@ -114,6 +149,11 @@ public class GameController {
             currentPlayer = currentPlayer.opposite();
         }
 
+        blackPlayer.stopPondering();
+        whitePlayer.stopPondering();
+        blackPlayer.shutdown();
+        whitePlayer.shutdown();
+
         if (!gameOver) {
             System.out.println("\n═══════════════════════════════");
             System.out.println("平局！棋盘已满");
@@ -179,7 +219,9 @@ public class GameController {
         AIPlayer black = new player.AlphaBetaAI("AI-Alpha");
         AIPlayer white = new player.AlphaBetaAI("AI-Beta");
 
-        GameController controller = new GameController(black, white);
+        // 每方 10 分钟包干
+        GameController controller = new GameController(black, white, new GameClock(10 * 60 * 1000, 0, 0));
+        controller.setPondering(true);
 
         long startTime = System.currentTimeMillis();
         controller.playGame();
@@ -27,6 +27,29 @@ public class Move {
     public int getCol2() { return col2; }
     public boolean isFirstMove() { return isFirstMove; }
 
+    /**
+     * 同一回合的两子不分先后，(a,b) 与 (b,a) 视为同一走法。
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Move)) return false;
+        Move m = (Move) o;
+        if (isFirstMove || m.isFirstMove) {
+            return isFirstMove == m.isFirstMove && row1 == m.row1 && col1 == m.col1;
+        }
+        return (row1 == m.row1 && col1 == m.col1 && row2 == m.row2 && col2 == m.col2)
+                || (row1 == m.row2 && col1 == m.col2 && row2 == m.row1 && col2 == m.col1);
+    }
+
+    @Override
+    public int hashCode() {
+        int h1 = row1 * 31 + col1;
+        if (isFirstMove) return h1;
+        int h2 = row2 * 31 + col2;
+        return (h1 ^ h2) + h1 * h2;
+    }
+
     @Override
     public String toString() {
         if (isFirstMove) {
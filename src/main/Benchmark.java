@@ -0,0 +1,80 @@
+package main;
+
+import core.board.Board;
+import core.board.PieceColor;
+import core.game.Move;
+import player.AlphaBetaAI;
+
+import java.util.Arrays;
+
+/**
+ * 并行搜索扩展性基准：在固定的中局局面上，
+ * 比较不同搜索线程数下迭代加深到指定深度所需的时间。
+ * 计时前先不计时地跑一遍预热 JIT；每档用新引擎（空置换表）重复几次，取用时中位数。
+ * <p>
+ * 用法：java main.Benchmark [深度，默认 4] [最大线程数，默认 CPU 核数] [lazy|ybw，默认 lazy]
+ */
+public class Benchmark {
+    private static final int TT_SIZE_MB = 64;
+    private static final int REPEATS = 3;
+
+    // 黑先，之后双方各下两子；局面轮到白方
+    private static final int[][] OPENING = {
+            {9, 9},
+            {8, 8}, {8, 10},
+            {10, 8}, {10, 10},
+            {9, 7}, {9, 11},
+            {7, 9}, {11, 9}
+    };
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        AlphaBetaAI.ParallelMode mode = args.length > 2 && args[2].equalsIgnoreCase("ybw")
+                ? AlphaBetaAI.ParallelMode.YBW : AlphaBetaAI.ParallelMode.LAZY_SMP;
+
+        Board position = new Board();
+        for (int i = 0; i < OPENING.length; i++) {
+            PieceColor side = (i == 0 || (i - 1) / 2 % 2 == 1) ? PieceColor.BLACK : PieceColor.WHITE;
+            position.makeMove(OPENING[i][0], OPENING[i][1], side);
+        }
+
+        // 单线程和最大线程数各跑一遍预热 JIT（串行与并行路径），避免第一档偏慢、加速比虚高
+        search(position, depth, 1, mode, new Move[1]);
+        if (maxThreads > 1) search(position, depth, maxThreads, mode, new Move[1]);
+
+        long baseline = 0;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-8s %-10s %-8s %s%n", "线程数", "用时(ms)", "加速比", "最佳走法"));
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long[] times = new long[REPEATS];
+            Move[] best = new Move[1];
+            for (int i = 0; i < REPEATS; i++) {
+                times[i] = search(position, depth, threads, mode, best);
+            }
+            Arrays.sort(times);
+            long elapsed = times[REPEATS / 2];
+
+            if (threads == 1) baseline = Math.max(1, elapsed);
+            report.append(String.format("%-8d %-10d %-8.2f %s%n",
+                    threads, elapsed, baseline / (double) Math.max(1, elapsed), best[0]));
+        }
+
+        System.out.println("========== " + mode + " 到达深度 " + depth + " 的用时（" + REPEATS + " 次中位数） ==========");
+        System.out.print(report);
+    }
+
+    /**
+     * 用新建的引擎（空置换表）搜索一次，best[0] 记下最佳走法
+     * @return 搜索用时（毫秒），不含引擎创建与关闭
+     */
+    private static long search(Board position, int depth, int threads, AlphaBetaAI.ParallelMode mode, Move[] best) {
+        AlphaBetaAI engine = new AlphaBetaAI("bench-" + threads, TT_SIZE_MB, threads);
+        engine.setParallelMode(mode);
+        long start = System.nanoTime();
+        best[0] = engine.searchToDepth(position, PieceColor.WHITE, depth);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        engine.shutdown();
+        return elapsed;
+    }
+}
@@ -0,0 +1,314 @@
+package main;
+
+import core.board.Board;
+import core.board.PieceColor;
+import player.AlphaBetaAI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 评估函数的差分校验：在固定种子生成的随机局面上，以黑白双方分别为我方，
+ * 比较 AlphaBetaAI 的单趟融合评估与下方冻结的旧版多趟扫描评估，要求逐项数值完全相同。
+ * 有不一致时打印前几个局面并以退出码 1 结束。
+ * <p>
+ * 用法：java main.EvaluationCheck [局面数，默认 3000] [随机种子，默认 20261017]
+ */
+public class EvaluationCheck {
+    private static final int MAX_REPORTED = 5;
+
+    public static void main(String[] args) {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 20261017L;
+
+        Random random = new Random(seed);
+        AlphaBetaAI engine = new AlphaBetaAI("evaluation-check", 1, 1);
+        int mismatches = 0;
+        for (int i = 0; i < positions; i++) {
+            Board b = randomPosition(random);
+            for (PieceColor side : new PieceColor[]{PieceColor.BLACK, PieceColor.WHITE}) {
+                int[] fused = engine.evaluationTerms(b, side);
+                int[] reference = new ReferenceEvaluator(side).terms(b);
+                if (Arrays.equals(fused, reference)) continue;
+                if (mismatches++ < MAX_REPORTED) {
+                    System.out.println("局面 #" + i + "，我方 " + side + "：融合 " + Arrays.toString(fused)
+                            + "，旧版 " + Arrays.toString(reference));
+                    System.out.print(render(b));
+                }
+            }
+        }
+        engine.shutdown();
+
+        System.out.println("========== 评估差分校验：" + positions + " 个局面 × 双方，种子 " + seed + " ==========");
+        if (mismatches > 0) {
+            System.out.println("不一致：" + mismatches + " 处");
+            System.exit(1);
+        }
+        System.out.println("全部一致（evaluate、双方 enhancedEvaluate、双方威胁数）");
+    }
+
+    private static String render(Board b) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                PieceColor pc = b.get(r, c);
+                sb.append(pc == PieceColor.BLACK ? 'X' : pc == PieceColor.WHITE ? 'O' : '.');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 在以中心附近某点为中心、随机大小的方框内交替落子，使局面里常见连三连四等棋型
+     */
+    private static Board randomPosition(Random random) {
+        Board b = new Board();
+        int radius = 2 + random.nextInt(8);
+        int centerRow = radius + random.nextInt(Board.SIZE - 2 * radius);
+        int centerCol = radius + random.nextInt(Board.SIZE - 2 * radius);
+        int side = 2 * radius + 1;
+        int stones = random.nextInt(side * side * 3 / 4 + 1);
+        PieceColor color = PieceColor.BLACK;
+        for (int placed = 0; placed < stones; ) {
+            int r = centerRow - radius + random.nextInt(side);
+            int c = centerCol - radius + random.nextInt(side);
+            if (!b.makeMove(r, c, color)) continue;
+            // 黑方第一手一子，之后每方两子
+            if (placed++ % 2 == 0) color = color.opposite();
+        }
+        return b;
+    }
+
+    /**
+     * 融合前的评估（冻结副本，不随 AlphaBetaAI 修改）：双方棋型各逐格逐方向扫描一遍，
+     * 路径控制逐条路计数并以整盘字符串为键缓存，威胁数由两次 collectThreats 式扫描得到。
+     * 原缓存键不含评估方，换边查询会取到另一方的值；这里把评估方并入键中，只校验数值本身。
+     */
+    private static final class ReferenceEvaluator {
+        private static final int THREAT_IMPORTANT = 10_000;
+        private static final int[][] DIRS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        private static final int PATTERN_SIX = 0;
+        private static final int PATTERN_LIVE_FIVE = 2;
+        private static final int PATTERN_SLEEP_FIVE = 3;
+        private static final int PATTERN_LIVE_FOUR = 5;
+        private static final int PATTERN_SLEEP_FOUR = 6;
+        private static final int PATTERN_DEAD_FOUR = 7;
+        private static final int PATTERN_LIVE_THREE = 8;
+        private static final int PATTERN_HAZY_THREE = 9;
+        private static final int PATTERN_SLEEP_THREE = 10;
+        private static final int PATTERN_LIVE_TWO = 12;
+        private static final int PATTERN_SLEEP_TWO = 13;
+        private static final int[] SCORE_SELF = {
+                5000000, 5000000, 25000, 800, 0, 20000, 1500, 0, 600, 400, 200, 0, 500, 2, 0
+        };
+        private static final int[] SCORE_OPPONENT = {
+                1000000, 1000000, 1000000, 1000000, 0, 1000000, 1000000, 0, 700, 500, 300, 0, 600, 10, 0
+        };
+        private static final int[][] POSITION_SCORE = {
+                {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 5, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 5, 0},
+                {0, 3, 6, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 6, 3, 0},
+                {0, 3, 5, 10, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 10, 5, 3, 0},
+                {0, 3, 5, 8, 12, 12, 12, 12, 12, 12, 12, 12, 12, 12, 8, 5, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 16, 16, 16, 16, 16, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 20, 20, 20, 20, 20, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 20, 24, 24, 24, 20, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 20, 24, 30, 24, 20, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 20, 24, 30, 24, 20, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 20, 24, 24, 24, 20, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 20, 20, 20, 20, 20, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 16, 16, 16, 16, 16, 16, 16, 12, 8, 5, 3, 3, 0, 0},
+                {0, 3, 5, 8, 12, 12, 12, 12, 12, 12, 12, 12, 12, 12, 8, 5, 3, 0, 0},
+                {0, 3, 5, 10, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 10, 5, 3, 0},
+                {0, 3, 6, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 5, 6, 3, 0},
+                {0, 5, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 5, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}
+        };
+
+        private final PieceColor color;
+        private final Map<String, Integer> pathValueCache = new HashMap<>();
+
+        ReferenceEvaluator(PieceColor color) {
+            this.color = color;
+        }
+
+        /**
+         * 与 {@link AlphaBetaAI#evaluationTerms} 顺序相同的各项
+         */
+        int[] terms(Board b) {
+            return new int[]{evaluate(b), enhancedEvaluate(b, color), enhancedEvaluate(b, color.opposite()),
+                    countThreats(b, color), countThreats(b, color.opposite())};
+        }
+
+        private int evaluate(Board b) {
+            int myScore = evaluatePlayerWithPatterns(b, color, true);
+            int oppScore = evaluatePlayerWithPatterns(b, color.opposite(), false);
+            int pathControlScore = evaluatePathControl(b, color);
+            return myScore - oppScore + pathControlScore;
+        }
+
+        private int enhancedEvaluate(Board b, PieceColor player) {
+            int standardScore = evaluate(b);
+            int threatBonus = 0;
+            if (countThreats(b, player) > 0) threatBonus += 5000;
+            if (countThreats(b, player.opposite()) > 0) threatBonus -= 10000;
+            int pathControlScore = evaluatePathControl(b, player);
+            return standardScore + threatBonus + pathControlScore;
+        }
+
+        private int evaluatePathControl(Board b, PieceColor player) {
+            String boardKey = player + ":" + getBoardKey(b);
+            if (pathValueCache.containsKey(boardKey)) return pathValueCache.get(boardKey);
+            int score = 0;
+            for (int[] dir : DIRS) {
+                for (int r = 0; r < Board.SIZE; r++) {
+                    for (int c = 0; c < Board.SIZE; c++) {
+                        score += evaluateStrategicPath(b, r, c, dir[0], dir[1], player);
+                    }
+                }
+            }
+            score += evaluateCenterControl(b, player);
+            pathValueCache.put(boardKey, score);
+            return score;
+        }
+
+        private String getBoardKey(Board b) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < Board.SIZE; i++) {
+                for (int j = 0; j < Board.SIZE; j++) {
+                    PieceColor pc = b.get(i, j);
+                    sb.append(pc == color ? '1' : (pc == color.opposite() ? '2' : '0'));
+                }
+            }
+            return sb.toString();
+        }
+
+        private int evaluateStrategicPath(Board b, int r, int c, int dr, int dc, PieceColor player) {
+            int myCount = 0, oppCount = 0, emptyCount = 0;
+            for (int i = 0; i < 6; i++) {
+                int rr = r + i * dr, cc = c + i * dc;
+                if (!b.isValid(rr, cc)) return 0;
+                PieceColor pc = b.get(rr, cc);
+                if (pc == player) myCount++;
+                else if (pc == player.opposite()) oppCount++;
+                else emptyCount++;
+            }
+            if (myCount > 0 && oppCount > 0) return 0;
+            if (myCount > 0) return myCount * 5 + emptyCount * 2;
+            if (oppCount > 0) return -(oppCount * 6 + emptyCount * 3);
+            return 1;
+        }
+
+        private int evaluateCenterControl(Board b, PieceColor player) {
+            int score = 0;
+            for (int r = 5; r <= 13; r++) {
+                for (int c = 5; c <= 13; c++) {
+                    PieceColor pc = b.get(r, c);
+                    if (pc == player) score += 15;
+                    else if (pc == player.opposite()) score -= 15;
+                }
+            }
+            return score;
+        }
+
+        private int evaluatePlayerWithPatterns(Board b, PieceColor player, boolean isUs) {
+            int totalScore = 0, positionScore = 0;
+            for (int i = 0; i < Board.SIZE; i++) {
+                for (int j = 0; j < Board.SIZE; j++) {
+                    if (b.get(i, j) == player) {
+                        positionScore += POSITION_SCORE[i][j];
+                    }
+                }
+            }
+            for (int r = 0; r < Board.SIZE; r++) {
+                for (int c = 0; c < Board.SIZE; c++) {
+                    for (int[] dir : DIRS) {
+                        totalScore += evaluateLinePattern(b, r, c, dir[0], dir[1], player, isUs);
+                    }
+                }
+            }
+            return totalScore + positionScore;
+        }
+
+        private int evaluateLinePattern(Board b, int r, int c, int dr, int dc, PieceColor player, boolean isUs) {
+            List<Integer> line = new ArrayList<>();
+            for (int k = -2; k <= 6; k++) {
+                int rr = r + k * dr, cc = c + k * dc;
+                if (!b.isValid(rr, cc)) line.add(-1);
+                else {
+                    PieceColor pc = b.get(rr, cc);
+                    if (pc == player) line.add(1);
+                    else if (pc == player.opposite()) line.add(2);
+                    else line.add(0);
+                }
+            }
+            int patternType = analyzePattern(line);
+            if (patternType == -1) return 0;
+            return isUs ? SCORE_SELF[patternType] : SCORE_OPPONENT[patternType];
+        }
+
+        private int analyzePattern(List<Integer> line) {
+            int myCount = 0, emptyCount = 0, oppCount = 0, leftEmpty = 0, rightEmpty = 0;
+            if (line.size() < 8) return -1;
+            for (int i = 2; i < 8; i++) {
+                int val = line.get(i);
+                if (val == 1) myCount++;
+                else if (val == 0) emptyCount++;
+                else if (val == 2) oppCount++;
+                else return -1;
+            }
+            if (oppCount > 0) return -1;
+            if (line.get(1) == 0) leftEmpty = 1;
+            if (line.get(8) == 0) rightEmpty = 1;
+            if (myCount >= 6) return PATTERN_SIX;
+            if (myCount == 5 && emptyCount == 1) return (leftEmpty == 1 && rightEmpty == 1) ? PATTERN_LIVE_FIVE : PATTERN_SLEEP_FIVE;
+            if (myCount == 4 && emptyCount == 2) {
+                if (leftEmpty == 1 && rightEmpty == 1) return PATTERN_LIVE_FOUR;
+                if (leftEmpty == 1 || rightEmpty == 1) return PATTERN_SLEEP_FOUR;
+                return PATTERN_DEAD_FOUR;
+            }
+            if (myCount == 3 && emptyCount == 3) {
+                if (leftEmpty == 1 && rightEmpty == 1) return PATTERN_LIVE_THREE;
+                if (leftEmpty == 1 || rightEmpty == 1) return PATTERN_HAZY_THREE;
+                return PATTERN_SLEEP_THREE;
+            }
+            if (myCount == 2 && emptyCount == 4) return (leftEmpty == 1 && rightEmpty == 1) ? PATTERN_LIVE_TWO : PATTERN_SLEEP_TWO;
+            return -1;
+        }
+
+        private int countThreats(Board b, PieceColor who) {
+            Map<String, Integer> threats = new HashMap<>();
+            for (int r = 0; r < Board.SIZE; r++) {
+                for (int c = 0; c < Board.SIZE; c++) {
+                    for (int[] dir : DIRS) {
+                        int score = evaluateLinePattern(b, r, c, dir[0], dir[1], who, who == color);
+                        if (score < THREAT_IMPORTANT) continue;
+                        boolean blockable = false;
+                        for (int k = 0; k < 6; k++) {
+                            int rr = r + k * dir[0], cc = c + k * dir[1];
+                            if (b.isValid(rr, cc) && b.get(rr, cc) == PieceColor.EMPTY) blockable = true;
+                        }
+                        if (blockable) threats.merge(generateThreatKey(r, c, dir), score, Math::max);
+                    }
+                }
+            }
+            return threats.size();
+        }
+
+        private String generateThreatKey(int r, int c, int[] dir) {
+            int dr = dir[0], dc = dir[1];
+            int r2 = r + 5 * dr, c2 = c + 5 * dc;
+            if (r < r2 || (r == r2 && c < c2)) {
+                return String.format("%d,%d:%d,%d", r, c, dr, dc);
+            } else {
+                return String.format("%d,%d:%d,%d", r2, c2, -dr, -dc);
+            }
+        }
+    }
+}
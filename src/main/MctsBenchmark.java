@@ -0,0 +1,58 @@
+package main;
+
+import core.board.Board;
+import core.board.PieceColor;
+import player.AlphaBetaAI;
+
+/**
+ * 树并行 MCTS 扩展性基准：在固定的中局局面上，
+ * 比较不同线程数下每秒完成的模拟次数。
+ * <p>
+ * 用法：java main.MctsBenchmark [每档时长（秒），默认 5] [最大线程数，默认 CPU 核数]
+ */
+public class MctsBenchmark {
+    private static final int TT_SIZE_MB = 16;
+
+    // 黑先，之后双方各下两子；局面轮到白方
+    private static final int[][] OPENING = {
+            {9, 9},
+            {8, 8}, {8, 10},
+            {10, 8}, {10, 10},
+            {9, 7}, {9, 11},
+            {7, 9}, {11, 9}
+    };
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Board position = new Board();
+        for (int i = 0; i < OPENING.length; i++) {
+            PieceColor side = (i == 0 || (i - 1) / 2 % 2 == 1) ? PieceColor.BLACK : PieceColor.WHITE;
+            position.makeMove(OPENING[i][0], OPENING[i][1], side);
+        }
+
+        // 先单线程跑一档预热 JIT，避免第一档偏慢
+        AlphaBetaAI warmup = new AlphaBetaAI("mcts-bench-warmup", TT_SIZE_MB, 1);
+        warmup.runPlayouts(position, PieceColor.WHITE, seconds * 1000L);
+        warmup.shutdown();
+
+        double baseline = 0;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-8s %-10s %-12s %s%n", "线程数", "模拟次数", "每秒模拟", "加速比"));
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            AlphaBetaAI engine = new AlphaBetaAI("mcts-bench-" + threads, TT_SIZE_MB, threads);
+            long start = System.nanoTime();
+            int playouts = engine.runPlayouts(position, PieceColor.WHITE, seconds * 1000L);
+            double elapsed = Math.max(1, (System.nanoTime() - start) / 1_000_000) / 1000.0;
+            engine.shutdown();
+
+            double rate = playouts / elapsed;
+            if (threads == 1) baseline = Math.max(1e-9, rate);
+            report.append(String.format("%-8d %-10d %-12.0f %.2f%n", threads, playouts, rate, rate / baseline));
+        }
+
+        System.out.println("========== MCTS 每档 " + seconds + " 秒的模拟速度 ==========");
+        System.out.print(report);
+    }
+}
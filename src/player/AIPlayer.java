@@ -2,12 +2,15 @@ package player;
 
 import core.board.Board;
 import core.board.PieceColor;
+import core.game.GameClock;
 import core.game.Move;
 
 public abstract class AIPlayer {
     protected PieceColor color;
     protected Board board;
     protected String playerName;
+    protected GameClock gameClock;  // 为 null 时按固定的每步时限思考
+    protected volatile boolean pondering;
 
     public AIPlayer(String name) {
         this.playerName = name;
@@ -25,6 +28,38 @@ public abstract class AIPlayer {
         this.board = board;
     }
 
+    public void setGameClock(GameClock gameClock) {
+        this.gameClock = gameClock;
+    }
+
+    /**
+     * 开启后，引擎在返回走法后利用对手的思考时间继续搜索
+     */
+    public void setPondering(boolean enabled) {
+        this.pondering = enabled;
+        if (!enabled) {
+            stopPondering();
+        }
+    }
+
+    public boolean isPondering() {
+        return pondering;
+    }
+
+    /**
+     * 立即停止后台思考并等待其线程退出，对局结束或重新开始时调用。
+     * 不支持后台思考的引擎无需覆盖。
+     */
+    public void stopPondering() {
+    }
+
+    /**
+     * 释放引擎持有的线程等资源，引擎不再使用时调用，之后不能再走棋。
+     * 不持有线程池的引擎无需覆盖。
+     */
+    public void shutdown() {
+    }
+
     public String getName() {
         return playerName;
     }
@@ -7,6 +7,7 @@ import core.game.Move;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -22,16 +23,29 @@ import java.util.concurrent.atomic.AtomicReference;
 public class AlphaBetaAI extends AIPlayer {
     // ================== 搜索与评估参数（与前一版相同） ==================
     private static final int MAX_DEPTH = 6;
-    private static final int SEARCH_TIMEOUT_MS = 9800;
     private static final int INF = 10_000_000;
     private static final int WIN_SCORE = 5_000_000;
     private static final int MCTS_TURN_THRESHOLD = 5;
-    private static final double UCB_C_BASE = 1.5;
-    private static final double UCB_C_ADJUST_FACTOR = 0.15;
-    private static final int MCTS_SIMULATION_DEPTH = 12;
-    private static final int MCTS_SIMULATION_COUNT = 25000;
+    private static final double PUCT_C_BASE = 3.0;
+    private static final double PUCT_C_ADJUST_FACTOR = 0.15;
+    private static final int MCTS_SIMULATION_COUNT = 100_000;  // 约为节点池容纳得下的模拟次数
+    private static final int MCTS_EXPAND_LIMIT = 20;
+    private static final double MCTS_PRIOR_TEMPERATURE = 2000;  // 先验 softmax 的温度（评分单位），取得偏软：双子静态评分在战术局面里并不可靠
+    private static final double MCTS_PRIOR_UNIFORM = 0.5;       // 先验中均匀分布的比例，评分低的候选也保留探索机会
+    private static final int MCTS_EXPAND_PLAYOUTS = 4;  // 叶子累计这么多次模拟后才展开；展开远比一次模拟昂贵
+    private static final int MCTS_TREE_CAPACITY = 1 << 19;  // 约 14MB，足够一回合的模拟加上保留的子树
+    private static final int MCTS_MAX_PATH = 256;
     private static final long ITERATION_TIME_RESERVE = 1000;
     private static final long GREEDY_UPDATE_INTERVAL = 50;
+    private static final int YBW_MIN_SPLIT_DEPTH = 2;  // 剩余深度不足时并行开销大于收益
+    private static final int THREAT_ORDER_BONUS = 1 << 22;  // 覆盖威胁点的走法排在杀手与历史走法之前
+    private static final int FIRST_STONES = 8;    // 两段式生成中第一子的候选数
+    private static final int SECOND_STONES = 14;  // 第二子的候选数
+    private static final int VCDT_NODE_BUDGET = 20_000;
+    private static final int VCDT_MAX_DEPTH = 5;
+    private static final int VCDT_TIME_DIVISOR = 4;  // 求解最多占用软时限的 1/4
+    private static final int DFPN_NODE_LIMIT = 30_000;
+    private static final int DFPN_TIME_DIVISOR = 4;
     private static final int[] SCORE_SELF = {
             5000000, 5000000, 25000, 800, 0, 20000, 1500, 0, 600, 400, 200, 0, 500, 2, 0
     };
@@ -53,6 +67,29 @@ public class AlphaBetaAI extends AIPlayer {
     private static final int PATTERN_LIVE_TWO = 12;
     private static final int PATTERN_SLEEP_TWO = 13;
     private static final int PATTERN_DEAD_TWO = 14;
+    /**
+     * 棋型查找表：以 (r,c) 为起点的一条线上 k=-1..6 共 8 格，每格 2 位编码
+     * （Board.stoneCode：0 空、1 黑、2 白、3 棋盘外），第 k 格位于第 2(k+1) 位。
+     * PATTERN_TABLE[0] 以黑方视角、[1] 以白方视角给出 PATTERN_* 编号，无棋型为 -1。
+     * k=-2 那一格从不影响 analyzePattern 的结果，因此不参与编码。
+     */
+    private static final byte[][] PATTERN_TABLE = new byte[2][1 << 16];
+
+    static {
+        int[] line = new int[9];
+        for (int side = 0; side < 2; side++) {
+            for (int code = 0; code < (1 << 16); code++) {
+                for (int k = -1; k <= 6; k++) {
+                    int v = (code >>> (2 * (k + 1))) & 3;
+                    if (v == 3) line[k + 2] = -1;
+                    else if (v == 0) line[k + 2] = 0;
+                    else line[k + 2] = (v == side + 1) ? 1 : 2;
+                }
+                PATTERN_TABLE[side][code] = (byte) analyzePattern(line);
+            }
+        }
+    }
+    private static final int[][] EVAL_DIRS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
     private static final int THREAT_WIN = 500_000;
     private static final int THREAT_URGENT = 50_000;
     private static final int THREAT_IMPORTANT = 10_000;
@@ -80,38 +117,100 @@ public class AlphaBetaAI extends AIPlayer {
     };
 
     // ================== 核心数据结构（与前一版相同） ==================
-    private static class CacheEntry {
-        final int score;
-        final int depth;
-        final int flag;
-
-        CacheEntry(int score, int depth, int flag) {
-            this.score = score;
-            this.depth = depth;
-            this.flag = flag;
-        }
-    }
-
-    private final ConcurrentHashMap<Long, CacheEntry> transpositionTable = new ConcurrentHashMap<>();
+    private final TranspositionTable transpositionTable;
+    private final TimeManager timeManager = new TimeManager();
+    private final VcdtSolver vcdtSolver = new VcdtSolver(VCDT_NODE_BUDGET);
+    private final DfpnSolver dfpnSolver = new DfpnSolver();
+    private final MoveHistory moveHistory = new MoveHistory();
+    private volatile Ponder ponder;
+    private final MctsTree mctsTree = new MctsTree(MCTS_TREE_CAPACITY, PUCT_C_BASE, PUCT_C_ADJUST_FACTOR);
+    private int retainedTree = MctsTree.NONE;  // 上一回合所选走法对应的节点，其下为对手走棋的局面
+    private long retainedHash;                 // retainedTree 对应局面的哈希
     private final ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+    private final int searchThreads;
+    private final ExecutorService smpPool;  // Lazy SMP 与并行 MCTS 的辅助线程，线程数为 searchThreads - 1
+    private final ForkJoinPool fjPool;      // YBW 工作窃取线程池，并行度为 searchThreads
+    private volatile ParallelMode parallelMode = ParallelMode.LAZY_SMP;
     private int turnCount = 0;
-    private Map<String, Integer> pathValueCache = new HashMap<>();
     private int nodesExplored = 0;
     private int cacheHits = 0;
     private int cacheMisses = 0;
 
     public AlphaBetaAI(String name) {
+        this(name, TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * @param ttSizeMb 置换表大小（MB），在构造时一次性分配
+     */
+    public AlphaBetaAI(String name, int ttSizeMb) {
+        this(name, ttSizeMb, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param ttSizeMb      置换表大小（MB），在构造时一次性分配
+     * @param searchThreads 剪枝搜索与 MCTS 使用的线程数（含主线程），1 表示单线程
+     */
+    public AlphaBetaAI(String name, int ttSizeMb, int searchThreads) {
         super(name);
+        if (searchThreads < 1) {
+            throw new IllegalArgumentException("searchThreads must be at least 1: " + searchThreads);
+        }
+        this.transpositionTable = new TranspositionTable(ttSizeMb);
+        this.searchThreads = searchThreads;
+        this.smpPool = searchThreads > 1 ? Executors.newFixedThreadPool(searchThreads - 1, r -> {
+            Thread t = new Thread(r, name + "-lazy-smp");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+        this.fjPool = new ForkJoinPool(searchThreads);
+    }
+
+    /**
+     * 剪枝搜索的并行方式
+     */
+    public enum ParallelMode {
+        /** 多个线程各自搜索同一根节点，只通过置换表共享信息 */
+        LAZY_SMP,
+        /** ForkJoin 工作窃取的内部节点并行（Young Brothers Wait） */
+        YBW
+    }
+
+    public void setParallelMode(ParallelMode parallelMode) {
+        this.parallelMode = Objects.requireNonNull(parallelMode);
     }
 
     @Override
     public Move findMove(Move opponentMove) {
+        Ponder previous = ponder;
+        stopPondering();
+        Move move = decideMove(opponentMove, previous);
+        startPondering();
+        return move;
+    }
+
+    private Move decideMove(Move opponentMove, Ponder previous) {
         turnCount++;
         long startTime = System.currentTimeMillis();
-        System.out.println("=== 第 " + turnCount + " 回合 ===");
-
-        transpositionTable.clear();
-        pathValueCache.clear();
+        timeManager.startMove(gameClock, color);
+        SearchDeadline deadline = timeManager.hardDeadline();
+        System.out.println("=== 第 " + turnCount + " 回合 === 软时限: " + timeManager.getSoftLimitMs()
+                + "ms, 硬时限: " + timeManager.getHardLimitMs() + "ms");
+
+        // 后台思考猜中对手应对时，思考期间写入的置换表条目就是本回合的搜索结果，不推进世代
+        boolean ponderHit = previous != null && previous.bestAnswer != null && opponentMove != null
+                && opponentMove.equals(previous.predictedReply);
+        if (ponderHit) {
+            System.out.println("[后台思考] 命中对手应对 " + moveToString(opponentMove) + "，沿用思考结果: "
+                    + moveToString(previous.bestAnswer));
+        } else {
+            // 置换表跨回合保留，只推进世代让旧条目优先被替换
+            transpositionTable.newSearch();
+        }
+        // 后台思考开始时已为新回合衰减过历史表，思考的根与本回合的根同层，猜错也无需再移
+        if (previous == null || previous.predictedReply == null) {
+            moveHistory.newTurn();
+        }
         nodesExplored = 0;
         cacheHits = 0;
         cacheMisses = 0;
@@ -124,8 +223,13 @@ public class AlphaBetaAI extends AIPlayer {
             }
         }
 
+        int reusedRoot = takeRetainedSubtree(opponentMove);
+
+        // 分析与搜索都在私有副本上通过 make/unmake 进行，共享棋盘只在最终落子时修改
+        Board root = board.clone();
+
         // 1. 【新】检查我方是否有必胜走法 (最高优先级)
-        Move winningMove = findImmediateThreatMove(board, color);
+        Move winningMove = findImmediateThreatMove(root, color);
         if (winningMove != null) {
             System.out.println("AI检测到必胜走法，直接执行: " + moveToString(winningMove));
             applyMove(winningMove);
@@ -134,8 +238,38 @@ public class AlphaBetaAI extends AIPlayer {
             return winningMove;
         }
 
-        // 2. 【新】检查对方是否有必胜走法，必须立即阻挡 (次高优先级)
-        Move blockingMove = findImmediateThreatMove(board, color.opposite());
+        // 2. 连续双威胁求解：找到的是严格证明的必胜，对方现成的六连机会已在其中挡住
+        long vcdtStart = System.currentTimeMillis();
+        Move vcdtMove = vcdtSolver.solve(root, color, VCDT_MAX_DEPTH,
+                SearchDeadline.after(timeManager.getSoftLimitMs() / VCDT_TIME_DIVISOR));
+        System.out.println("[VCDT] " + vcdtSolver.getLastResult() + "，节点: " + vcdtSolver.getNodes()
+                + "，用时: " + (System.currentTimeMillis() - vcdtStart) + "ms");
+        if (vcdtMove != null) {
+            System.out.println("AI找到连续双威胁必胜: " + moveToString(vcdtMove));
+            applyMove(vcdtMove);
+            long totalTime = System.currentTimeMillis() - startTime;
+            System.out.println("本回合决策用时: " + totalTime + "ms (快速决策)");
+            return vcdtMove;
+        }
+        // 中后局威胁多、分支深，PVS 的分支剪裁与 MCTS 的短模拟都容易漏掉长的连续威胁，
+        // 交给不限深度的 df-pn 再证一次
+        if (turnCount > MCTS_TURN_THRESHOLD) {
+            long dfpnStart = System.currentTimeMillis();
+            Move dfpnMove = dfpnSolver.solve(root, color, DFPN_NODE_LIMIT,
+                    SearchDeadline.after(timeManager.getSoftLimitMs() / DFPN_TIME_DIVISOR));
+            System.out.println("[df-pn] " + dfpnSolver.getLastResult() + "，节点: " + dfpnSolver.getNodes()
+                    + "，用时: " + (System.currentTimeMillis() - dfpnStart) + "ms");
+            if (dfpnMove != null) {
+                System.out.println("AI证明威胁空间必胜: " + moveToString(dfpnMove));
+                applyMove(dfpnMove);
+                long totalTime = System.currentTimeMillis() - startTime;
+                System.out.println("本回合决策用时: " + totalTime + "ms (快速决策)");
+                return dfpnMove;
+            }
+        }
+
+        // 3. 【新】检查对方是否有必胜走法，必须立即阻挡 (次高优先级)
+        Move blockingMove = findImmediateThreatMove(root, color.opposite());
         if (blockingMove != null) {
             System.out.println("AI检测到对方必胜，必须防守: " + moveToString(blockingMove));
             applyMove(blockingMove);
@@ -144,23 +278,26 @@ public class AlphaBetaAI extends AIPlayer {
             return blockingMove;
         }
 
-        // 3. 收集其他“重要但不绝对”的关键走法，注入到搜索中
-        List<Move> criticalCandidates = findOtherCriticalMoves(board);
+        // 4. 收集其他“重要但不绝对”的关键走法，注入到搜索中
+        List<Move> criticalCandidates = findOtherCriticalMoves(root);
+        if (!criticalCandidates.isEmpty()) {
+            timeManager.threatsPresent();
+        }
 
         Move finalMove;
 
         // 根据回合数选择搜索策略
         if (turnCount <= MCTS_TURN_THRESHOLD) {
             System.out.println("=== 开局阶段：使用混合策略（贪心为主，剪枝为辅） ===");
-            finalMove = hybridSearch(board, criticalCandidates);
+            finalMove = hybridSearch(root, criticalCandidates, deadline, ponderHit ? previous.bestAnswer : null);
         } else {
             System.out.println("=== 中后局阶段：使用蒙特卡洛树搜索（MCTS） ===");
-            finalMove = mctsSearch(board);
+            finalMove = mctsSearch(root, deadline, reusedRoot);
         }
 
-        if (finalMove == null || !isValidMove(board, finalMove)) {
+        if (finalMove == null || !isValidMove(root, finalMove)) {
             System.out.println("警告：选择的走法无效，使用增强版兜底策略");
-            finalMove = enhancedFallbackMove(board);
+            finalMove = enhancedFallbackMove(root);
         }
 
         long totalTime = System.currentTimeMillis() - startTime;
@@ -171,226 +308,371 @@ public class AlphaBetaAI extends AIPlayer {
         return finalMove;
     }
 
-    private boolean isValidMove(Board b, Move move) {
-        if (move == null) return false;
-        if (move.getRow1() < 0 || move.getRow1() >= Board.SIZE || move.getCol1() < 0 || move.getCol1() >= Board.SIZE || b.get(move.getRow1(), move.getCol1()) != PieceColor.EMPTY) {
-            return false;
-        }
-        if (move.isFirstMove()) return true;
-        return move.getRow2() >= 0 && move.getRow2() < Board.SIZE && move.getCol2() >= 0 && move.getCol2() < Board.SIZE && b.get(move.getRow2(), move.getCol2()) == PieceColor.EMPTY;
-    }
+    // ===================== 后台思考（利用对手的思考时间） =====================
 
-    // ===================== MCTS 蒙特卡洛树搜索（与前一版相同） =====================
-    private class MCTSNode {
-        PieceColor player;
-        Move move1;
-        Move move2;
-        MCTSNode parent;
-        List<MCTSNode> children;
-        int visitCount;
-        int winCount;
-        boolean isTerminal;
-        PieceColor winner;
+    /**
+     * 一次后台思考。剪枝阶段猜测对手的应对并针对它搜索我方的下一步；
+     * MCTS 阶段则在本回合保留的子树（根为对手走棋的局面）上继续模拟，覆盖对手的所有候选应对。
+     */
+    private final class Ponder {
+        final SearchDeadline deadline = SearchDeadline.unlimited();
+        volatile Move predictedReply;
+        volatile Move bestAnswer;
+        volatile int mctsRoot = MctsTree.NONE;
+        Future<?> future;
+    }
 
-        MCTSNode(PieceColor player, Move move1, Move move2, MCTSNode parent) {
-            this.player = player;
-            this.move1 = move1;
-            this.move2 = move2;
-            this.parent = parent;
-            this.children = new ArrayList<>();
-            this.visitCount = 0;
-            this.winCount = 0;
-            this.isTerminal = false;
-            this.winner = null;
-        }
-
-        double getUCB(int totalVisits, int depth) {
-            if (visitCount == 0) return Double.MAX_VALUE;
-            double dynamic_C = UCB_C_BASE * Math.exp(-UCB_C_ADJUST_FACTOR * depth);
-            double exploitation = (double) winCount / visitCount;
-            double exploration = dynamic_C * Math.sqrt(Math.log(totalVisits) / visitCount);
-            return exploitation + exploration;
-        }
-
-        void update(PieceColor loser) {
-            visitCount += 2;
-            if (loser == null) {
-                winCount += 1;
-            } else if (loser != player) {
-                winCount += 2;
+    private void startPondering() {
+        if (!pondering || board.winner() != null) return;
+        Board position = board.clone();
+        boolean useMcts = turnCount + 1 > MCTS_TURN_THRESHOLD;
+        Ponder p = new Ponder();
+        if (useMcts) {
+            // 在本回合保留下来的子树上继续模拟；没有可用子树时从当前局面新建
+            if (retainedTree == MctsTree.NONE || retainedHash != position.hash()) {
+                mctsTree.reset(color.opposite());
+                retainedTree = MctsTree.ROOT;
+                retainedHash = position.hash();
             }
+            p.mctsRoot = retainedTree;
         }
-
-        MCTSNode selectBestChild(int depth) {
-            MCTSNode best = null;
-            double bestUCB = -1;
-            for (MCTSNode child : children) {
-                if (child.visitCount == 0) return child;
-                double ucb = child.getUCB(visitCount, depth);
-                if (ucb > bestUCB) {
-                    bestUCB = ucb;
-                    best = child;
+        p.future = executor.submit(() -> {
+            try {
+                if (useMcts) {
+                    runMcts(p.mctsRoot, position, p.deadline, false, MCTS_SIMULATION_COUNT);
+                } else {
+                    ponderAlphaBeta(p, position);
                 }
+            } catch (Exception e) {
+                System.out.println("[后台思考] 异常: " + e.getMessage());
             }
-            return best;
+        });
+        ponder = p;
+    }
+
+    private void ponderAlphaBeta(Ponder p, Board position) {
+        // 刚结束的搜索通常已把对手的最佳应对留在置换表里
+        long entry = transpositionTable.probe(position.hash());
+        Move predicted = entry != 0 ? TranspositionTable.bestMove(entry) : null;
+        if (predicted == null || !isValidMove(position, predicted)) {
+            List<ScoredMove> replies = generateScoredMovesForBoard(position, color.opposite());
+            if (replies.isEmpty()) return;
+            predicted = replies.get(0).move;
+        }
+        if (p.deadline.isAborted() || !position.apply(predicted, color.opposite()) || position.winner() != null) {
+            return;
+        }
+        p.predictedReply = predicted;
+        transpositionTable.newSearch();
+        moveHistory.newTurn();
+        Move best = null;
+        for (int depth = 2; depth <= MAX_DEPTH && !p.deadline.isAborted(); depth++) {
+            Move current = parallelSearch(position, depth, null, best, p.deadline);
+            if (current == null) break;
+            best = current;
+            p.bestAnswer = best;
         }
     }
 
-    private Move mctsSearch(Board b) {
-        long startTime = System.currentTimeMillis();
-        MCTSNode root = new MCTSNode(color, null, null, null);
-        int iterations = 0;
-        while (iterations < MCTS_SIMULATION_COUNT && System.currentTimeMillis() - startTime < SEARCH_TIMEOUT_MS) {
-            Board simulationBoard = b.clone();
-            MCTSNode selected = select(root, simulationBoard, 0);
-            if (selected.visitCount == 0 || selected.isTerminal) {
-                PieceColor loser = simulate(simulationBoard, selected.player.opposite(), iterations);
-                backpropagate(selected, loser);
-            } else {
-                expand(selected, simulationBoard);
-                if (!selected.children.isEmpty()) {
-                    MCTSNode child = selected.children.get(0);
-                    applyMoveToBoard(simulationBoard, child.move1, selected.player);
-                    applyMoveToBoard(simulationBoard, child.move2, selected.player);
-                    PieceColor loser = simulate(simulationBoard, selected.player.opposite(), iterations);
-                    backpropagate(child, loser);
-                }
-            }
-            iterations++;
-            if (iterations % 1000 == 0) {
-                System.out.println("[MCTS] 已完成 " + iterations + " 次模拟");
-            }
+    @Override
+    public void stopPondering() {
+        Ponder p = ponder;
+        ponder = null;
+        if (p != null) {
+            p.deadline.abort();
+            awaitQuietly(p.future);
+        }
+    }
+
+    /**
+     * 从上一回合保留（并可能在后台思考中继续生长）的 MCTS 子树里取出对手实际走法对应的子节点，
+     * 作为本回合的根，保留其访问与胜场统计；其余分支随之释放。在对手走法落到棋盘之后调用，
+     * 撤掉对手这一手后的局面须与保留时一致。
+     */
+    private int takeRetainedSubtree(Move opponentMove) {
+        int tree = retainedTree;
+        retainedTree = MctsTree.NONE;
+        if (tree == MctsTree.NONE || opponentMove == null) return MctsTree.NONE;
+        Board before = board.clone();
+        if (!before.undo(opponentMove) || before.hash() != retainedHash) return MctsTree.NONE;
+        return mctsTree.findChild(tree, opponentMove);
+    }
+
+    private boolean isValidMove(Board b, Move move) {
+        if (move == null) return false;
+        if (move.getRow1() < 0 || move.getRow1() >= Board.SIZE || move.getCol1() < 0 || move.getCol1() >= Board.SIZE || b.get(move.getRow1(), move.getCol1()) != PieceColor.EMPTY) {
+            return false;
         }
-        System.out.println("[MCTS] 完成 " + iterations + " 次模拟");
-        MCTSNode bestChild = null;
-        int maxVisits = -1;
+        if (move.isFirstMove()) return true;
+        return move.getRow2() >= 0 && move.getRow2() < Board.SIZE && move.getCol2() >= 0 && move.getCol2() < Board.SIZE && b.get(move.getRow2(), move.getCol2()) == PieceColor.EMPTY;
+    }
+
+    // ===================== MCTS 蒙特卡洛树搜索（树并行） =====================
+    /**
+     * 多个线程在同一棵树（{@link MctsTree} 节点池）上并发执行选择、扩展、模拟与回传。
+     * 选择时沿途加虚拟损失，让并发的线程分散到不同分支，回传时撤销。
+     * @param reusedRoot 后台思考时已经展开的、对应当前局面的子树根；为 {@link MctsTree#NONE} 时从头建树
+     */
+    private Move mctsSearch(Board b, SearchDeadline deadline, int reusedRoot) {
+        if (reusedRoot != MctsTree.NONE) {
+            mctsTree.reroot(reusedRoot);
+            System.out.println("[MCTS] 沿用上一回合的子树，已有访问: " + mctsTree.visits(MctsTree.ROOT)
+                    + "，子节点: " + mctsTree.childCount(MctsTree.ROOT) + "，节点: " + mctsTree.size());
+        } else {
+            mctsTree.reset(color);
+        }
+        int root = MctsTree.ROOT;
+        long start = System.nanoTime();
+        int iterations = runMcts(root, b, deadline, true, MCTS_SIMULATION_COUNT);
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        System.out.println("[MCTS] 完成 " + iterations + " 次模拟，线程: " + searchThreads + "，每秒 "
+                + iterations * 1000L / elapsedMs + " 次，节点: " + mctsTree.size());
+        if (mctsTree.isProven(root)) {
+            System.out.println("[MCTS] 根节点已证明: " + (mctsTree.winner(root) == color ? "必胜" : "必败"));
+        }
+        // 已证明必胜的走法优先，已证明必败的排在最后，其余按访问次数
         System.out.println("[MCTS] 前5个最佳候选走法:");
-        List<MCTSNode> topNodes = new ArrayList<>(root.children);
-        topNodes.sort((a, n) -> Integer.compare(n.visitCount, a.visitCount));
+        List<Integer> topNodes = new ArrayList<>();
+        for (int i = 0; i < mctsTree.childCount(root); i++) {
+            topNodes.add(mctsTree.firstChild(root) + i);
+        }
+        topNodes.sort(Comparator.comparingInt((Integer n) -> provenRank(n))
+                .thenComparingInt(n -> mctsTree.visits(n)).reversed());
         int showCount = Math.min(5, topNodes.size());
         for (int i = 0; i < showCount; i++) {
-            MCTSNode child = topNodes.get(i);
-            System.out.println("[MCTS] #" + (i + 1) + ": " + moveToString(child.move1) + " + " + moveToString(child.move2) + " 访问: " + child.visitCount + " 胜率: " + String.format("%.2f%%", 100.0 * child.winCount / Math.max(1, child.visitCount)));
-            if (child.visitCount > maxVisits) {
-                maxVisits = child.visitCount;
-                bestChild = child;
-            }
+            int child = topNodes.get(i);
+            System.out.println("[MCTS] #" + (i + 1) + ": " + moveToString(mctsTree.move(child)) + " 访问: " + mctsTree.visits(child) + " 胜率: " + winRate(child));
         }
-        if (bestChild == null) {
+        if (topNodes.isEmpty()) {
             System.out.println("[MCTS] 未找到最佳走法，使用增强版兜底策略");
             return enhancedFallbackMove(b);
         }
-        Move result = new Move(bestChild.move1.getRow1(), bestChild.move1.getCol1(), bestChild.move2.getRow1(), bestChild.move2.getCol1());
-        System.out.println("[MCTS] 最终选择: " + moveToString(result) + " 访问: " + maxVisits + " 胜率: " + String.format("%.2f%%", 100.0 * bestChild.winCount / Math.max(1, bestChild.visitCount)));
+        int bestChild = topNodes.get(0);
+        Move result = mctsTree.move(bestChild);
+        System.out.println("[MCTS] 最终选择: " + moveToString(result) + " 访问: " + mctsTree.visits(bestChild) + " 胜率: " + winRate(bestChild));
+        // 保留所选走法下的子树，下一回合从中取出对手实际应对对应的孙节点
+        retainedTree = bestChild;
+        int base = b.getMoveCount();
+        b.apply(result, color);
+        retainedHash = b.hash();
+        b.rollback(base);
         return result;
     }
 
-    private MCTSNode select(MCTSNode node, Board b, int depth) {
-        while (!node.children.isEmpty() && !node.isTerminal) {
-            MCTSNode selected = node.selectBestChild(depth);
-            if (selected.visitCount == 0) return selected;
-            applyMoveToBoard(b, selected.move1, node.player);
-            applyMoveToBoard(b, selected.move2, node.player);
-            node = selected;
-            depth++;
-        }
-        return node;
+    private String winRate(int node) {
+        PieceColor winner = mctsTree.winner(node);
+        if (winner != null) return winner == color ? "必胜" : "必败";
+        return String.format("%.2f%%", 100.0 * mctsTree.wins(node) / Math.max(1, mctsTree.visits(node)));
     }
 
-    private void expand(MCTSNode node, Board b) {
-        PieceColor winner = checkWinner(b);
-        if (winner != null) {
-            node.isTerminal = true;
-            node.winner = winner;
-            return;
-        }
-        List<ScoredMove> candidates = generateScoredMovesForBoard(b, node.player);
-        if (candidates.isEmpty()) {
-            node.isTerminal = true;
-            return;
+    /**
+     * 根的子节点排序用：我方已证明必胜为 2，未证明为 1，已证明必败为 0
+     */
+    private int provenRank(int node) {
+        PieceColor winner = mctsTree.winner(node);
+        return winner == null ? 1 : winner == color ? 2 : 0;
+    }
+
+    /**
+     * 在 root 对应的局面 b 上用 searchThreads 个线程（调用线程加 smpPool 中的辅助线程）
+     * 并发执行选择、扩展、模拟与回传，直到截止或达到模拟次数上限。不修改 b。
+     * @param useSoftLimit 正式思考时受软时限约束；后台思考只受 deadline 约束
+     * @return 所有线程完成的模拟次数之和
+     */
+    private int runMcts(int root, Board b, SearchDeadline deadline, boolean useSoftLimit, int maxPlayouts) {
+        AtomicInteger playouts = new AtomicInteger();
+        List<Future<?>> helpers = new ArrayList<>(searchThreads - 1);
+        for (int i = 1; i < searchThreads; i++) {
+            Board copy = b.clone();
+            helpers.add(smpPool.submit(() -> mctsWorker(root, copy, deadline, useSoftLimit, maxPlayouts, playouts)));
         }
-        int expandLimit = Math.min(12, candidates.size());
-        Set<String> visited = new HashSet<>();
-        for (int i = 0; i < expandLimit; i++) {
-            Move move1 = candidates.get(i).move;
-            Board temp1 = b.clone();
-            applyMoveToBoard(temp1, move1, node.player);
-            if (checkWinner(temp1) == node.player) {
-                MCTSNode winChild = new MCTSNode(node.player.opposite(), move1, candidates.get(i == 0 ? 1 : i - 1).move, node);
-                winChild.isTerminal = true;
-                winChild.winner = node.player;
-                node.children.add(winChild);
-                break;
+        try {
+            mctsWorker(root, b.clone(), deadline, useSoftLimit, maxPlayouts, playouts);
+        } finally {
+            for (Future<?> helper : helpers) {
+                awaitQuietly(helper);
             }
-            int secondMoveRange = Math.min(15, candidates.size());
-            for (int j = 0; j < secondMoveRange; j++) {
-                if (i == j) continue;
-                Move move2 = candidates.get(j).move;
-                String key = getMovePairKey(move1, move2);
-                if (visited.contains(key)) continue;
-                visited.add(key);
-                Board temp2 = temp1.clone();
-                applyMoveToBoard(temp2, move2, node.player);
-                if (checkWinner(temp2) == node.player) {
-                    MCTSNode winChild = new MCTSNode(node.player.opposite(), move1, move2, node);
-                    winChild.isTerminal = true;
-                    winChild.winner = node.player;
-                    node.children.add(winChild);
-                    continue;
+        }
+        return Math.min(playouts.get(), maxPlayouts);
+    }
+
+    /**
+     * 一个搜索线程的主循环，simulationBoard 为该线程独占的棋盘副本
+     */
+    private void mctsWorker(int root, Board simulationBoard, SearchDeadline deadline, boolean useSoftLimit,
+                            int maxPlayouts, AtomicInteger playouts) {
+        int baseMoveCount = simulationBoard.getMoveCount();
+        int[] path = new int[MCTS_MAX_PATH];
+        Rollout rollout = new Rollout();
+        while (!mctsTree.isProven(root) && !deadline.poll() && !(useSoftLimit && timeManager.softExpired())) {
+            int iteration = playouts.incrementAndGet();
+            if (iteration > maxPlayouts) break;
+            int length = select(root, simulationBoard, path);
+            int leaf = path[length - 1];
+            // 模拟够次数的叶子由第一个到达的线程扩展；其余线程不等待，直接从该叶子模拟
+            boolean ripe = leaf == root || mctsTree.visits(leaf) >= 2 * MCTS_EXPAND_PLAYOUTS;
+            if (ripe && length < MCTS_MAX_PATH && mctsTree.tryBeginExpand(leaf)) {
+                int child = expand(leaf, simulationBoard);
+                if (child != MctsTree.NONE) {
+                    mctsTree.play(child, simulationBoard);
+                    mctsTree.addVirtualLoss(child);
+                    path[length++] = child;
+                    leaf = child;
                 }
-                MCTSNode child = new MCTSNode(node.player.opposite(), move1, move2, node);
-                node.children.add(child);
-                if (node.children.size() >= 20) return;
+            }
+            PieceColor winner;
+            if (mctsTree.isProven(leaf)) {
+                // 结果已确定，不必模拟；顺带把证明向上传播
+                winner = mctsTree.winner(leaf);
+                mctsTree.propagateProof(path, length);
+            } else {
+                winner = mctsTree.isTerminal(leaf) ? null : rollout.play(simulationBoard, mctsTree.player(leaf));
+            }
+            PieceColor loser = winner == null ? null : winner.opposite();
+            for (int i = 0; i < length; i++) {
+                mctsTree.update(path[i], loser);
+            }
+            simulationBoard.rollback(baseMoveCount);
+            if (iteration % 10_000 == 0) {
+                System.out.println("[MCTS] 已完成 " + iteration + " 次模拟");
             }
         }
     }
 
-    private PieceColor simulate(Board b, PieceColor currentPlayer, int iteration) {
-        int depth = 0;
-        Random random = new Random();
-        Board simBoard = b.clone();
-        int maxSimDepth = MCTS_SIMULATION_DEPTH;
-        while (depth < maxSimDepth) {
-            PieceColor winner = checkWinner(simBoard);
-            if (winner != null) {
-                return winner.opposite();
+    /**
+     * 从根向下选择，沿途加虚拟损失、把经过的节点写入 path 并在 b 上落子；
+     * 停在未访问过的节点、已证明或终局的节点、未展开的节点，或子节点全部已证明的节点上
+     * @return 路径长度，叶子为 path[length - 1]
+     */
+    private int select(int root, Board b, int[] path) {
+        int node = root;
+        mctsTree.addVirtualLoss(node);
+        path[0] = node;
+        int length = 1;
+        while (length < MCTS_MAX_PATH && !mctsTree.isProven(node) && !mctsTree.isTerminal(node)
+                && mctsTree.childCount(node) > 0) {
+            int child = mctsTree.selectChild(node, length - 1);
+            if (child == MctsTree.NONE) break;
+            node = child;
+            mctsTree.play(node, b);
+            mctsTree.addVirtualLoss(node);
+            path[length++] = node;
+            if (mctsTree.visits(node) == 0) break;
+        }
+        return length;
+    }
+
+    /**
+     * 展开 node，只由 tryBeginExpand 成功的线程调用。子节点全部写好后才发布。
+     * 威胁局面按 MCTS-Solver 直接判定：走棋方能连成六子时只展开这一手（必胜）；
+     * 对方的威胁两子挡不住时本节点必败；恰好两子才挡得住时展开全部挡法，并标为 exhaustive。
+     * 其余局面按双子静态评分取前 MCTS_EXPAND_LIMIT 个候选，评分经 softmax 作为先验，由选择时的渐进展宽逐个放开。
+     * @return 第一个子节点；node 为终局、已判定或节点池已满时返回 {@link MctsTree#NONE}
+     */
+    private int expand(int node, Board b) {
+        PieceColor winner = b.winner();
+        if (winner != null) {
+            mctsTree.markTerminal(node, winner);
+            return MctsTree.NONE;
+        }
+        PieceColor player = mctsTree.player(node);
+        int[] six = new int[2];
+        if (ThreatSpace.completeSix(b, player, six)) {
+            Move win = new Move(six[0] / Board.SIZE, six[0] % Board.SIZE, six[1] / Board.SIZE, six[1] % Board.SIZE);
+            return publishChildren(node, b, player, new Move[]{win}, new float[]{1}, 1, false, player);
+        }
+        int[] threats = ThreatSpace.threatWindows(b, player.opposite());
+        int hitting = ThreatSpace.hittingNumber(b, threats);
+        if (hitting > 2) {
+            mctsTree.markProven(node, player.opposite());
+            return MctsTree.NONE;
+        }
+        if (hitting == 2) {
+            Move[] blocks = blockingMoves(b, threats);
+            if (blocks.length <= MctsTree.MAX_CHILDREN) {
+                float[] priors = new float[blocks.length];
+                Arrays.fill(priors, 1.0f / Math.max(1, blocks.length));
+                return publishChildren(node, b, player, blocks, priors, blocks.length, true, null);
             }
-            List<int[]> candidates = getEmptyPositionsNearPieces(simBoard, 2);
-            if (candidates.size() < 2) {
-                List<int[]> allEmpty = new ArrayList<>();
-                for (int r = 0; r < Board.SIZE; r++) {
-                    for (int c = 0; c < Board.SIZE; c++) {
-                        if (simBoard.get(r, c) == PieceColor.EMPTY) {
-                            allEmpty.add(new int[]{r, c});
-                        }
-                    }
+        }
+        List<ScoredMove> candidates = generateScoredMovesForBoard(b, player);
+        int expandLimit = Math.min(MCTS_EXPAND_LIMIT, candidates.size());
+        Move[] moves = new Move[expandLimit];
+        for (int i = 0; i < expandLimit; i++) {
+            moves[i] = candidates.get(i).move;
+        }
+        return publishChildren(node, b, player, moves, scorePriors(candidates, expandLimit), expandLimit, false, null);
+    }
+
+    /**
+     * 把已按分数降序排好的前 count 个候选的评分换算成先验：按温度做 softmax，再混入一部分均匀分布
+     */
+    private static float[] scorePriors(List<ScoredMove> candidates, int count) {
+        float[] priors = new float[count];
+        if (count == 0) return priors;
+        double best = candidates.get(0).score;
+        double[] weights = new double[count];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            weights[i] = Math.exp((candidates.get(i).score - best) / MCTS_PRIOR_TEMPERATURE);
+            sum += weights[i];
+        }
+        for (int i = 0; i < count; i++) {
+            priors[i] = (float) ((1 - MCTS_PRIOR_UNIFORM) * weights[i] / sum + MCTS_PRIOR_UNIFORM / count);
+        }
+        return priors;
+    }
+
+    /**
+     * 恰需两子才能挡住 threats 时的全部挡法
+     */
+    private static Move[] blockingMoves(Board b, int[] threats) {
+        int[] empties = ThreatSpace.emptyCells(b, threats);
+        List<Move> blocks = new ArrayList<>();
+        for (int i = 0; i < empties.length; i++) {
+            for (int j = i + 1; j < empties.length; j++) {
+                if (ThreatSpace.hitsAll(threats, empties[i], empties[j])) {
+                    blocks.add(new Move(empties[i] / Board.SIZE, empties[i] % Board.SIZE,
+                            empties[j] / Board.SIZE, empties[j] % Board.SIZE));
                 }
-                if (allEmpty.size() < 2) return null;
-                candidates = allEmpty;
-            }
-            int idx1 = random.nextInt(candidates.size());
-            int[] pos1 = candidates.get(idx1);
-            int idx2 = random.nextInt(candidates.size());
-            while (idx1 == idx2) {
-                idx2 = random.nextInt(candidates.size());
             }
-            int[] pos2 = candidates.get(idx2);
-            simBoard.makeMove(pos1[0], pos1[1], currentPlayer);
-            simBoard.makeMove(pos2[0], pos2[1], currentPlayer);
-            currentPlayer = currentPlayer.opposite();
-            depth++;
-        }
-        int finalScore = evaluate(simBoard);
-        if (finalScore > WIN_SCORE / 10) return color.opposite();
-        if (finalScore < -WIN_SCORE / 10) return color;
-        return null;
+        }
+        return blocks.toArray(new Move[0]);
     }
 
-    private void backpropagate(MCTSNode node, PieceColor loser) {
-        while (node != null) {
-            node.update(loser);
-            node = node.parent;
-        }
+    /**
+     * 把 moves 的前 count 个合法走法按原顺序作为 node 的子节点写入节点池并发布；没有合法走法时把 node 记为和棋终局。
+     * 不在棋盘上试走：走棋方不能立即连成六子时任何两子都不会成六，能连成六子时调用方只传入那一手并给出 winner。
+     * @param winner 这些走法走完即获胜时为 player，否则为 null
+     */
+    private int publishChildren(int node, Board b, PieceColor player, Move[] moves, float[] priors, int count,
+                                boolean exhaustive, PieceColor winner) {
+        int[] legal = new int[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLegal(b, moves[i])) legal[n++] = i;
+        }
+        if (n == 0) {
+            mctsTree.markTerminal(node, null);
+            return MctsTree.NONE;
+        }
+        int first = mctsTree.allocate(n);
+        if (first == MctsTree.NONE) {
+            mctsTree.abortExpand(node);  // 池满：留待 reroot 回收空间后再扩展
+            return MctsTree.NONE;
+        }
+        for (int i = 0; i < n; i++) {
+            mctsTree.initChild(first + i, moves[legal[i]], player.opposite(), winner, priors[legal[i]]);
+        }
+        mctsTree.publish(node, first, n, exhaustive);
+        return first;
+    }
+
+    private static boolean isLegal(Board b, Move m) {
+        int c1 = m.getRow1() * Board.SIZE + m.getCol1();
+        if (m.isFirstMove()) return ThreatSpace.isEmpty(b, c1);
+        int c2 = m.getRow2() * Board.SIZE + m.getCol2();
+        return c1 != c2 && ThreatSpace.isEmpty(b, c1) && ThreatSpace.isEmpty(b, c2);
     }
 
     private String getMovePairKey(Move m1, Move m2) {
@@ -407,7 +689,10 @@ public class AlphaBetaAI extends AIPlayer {
     }
 
     // ===================== 混合搜索、PVS等（与前一版相同） =====================
-    private Move hybridSearch(Board b, List<Move> injectedCandidates) {
+    /**
+     * @param ponderBest 后台思考命中时针对本局面得到的最佳走法，作为第一轮迭代的首选；可为 null
+     */
+    private Move hybridSearch(Board b, List<Move> injectedCandidates, SearchDeadline deadline, Move ponderBest) {
         long startTime = System.currentTimeMillis();
         AtomicReference<Move> alphaBetaBestMove = new AtomicReference<>(null);
         AtomicReference<Integer> alphaBetaBestScore = new AtomicReference<>(-INF);
@@ -418,20 +703,35 @@ public class AlphaBetaAI extends AIPlayer {
         Future<?> alphaBetaFuture = executor.submit(() -> {
             try {
                 System.out.println("[剪枝搜索] 开始并行计算...");
+                Board work = b.clone();
+                Move previousBest = ponderBest;
                 for (int depth = 2; depth <= MAX_DEPTH; depth++) {
-                    long elapsedTime = System.currentTimeMillis() - startTime;
-                    if (elapsedTime + estimateSearchTime(depth) + ITERATION_TIME_RESERVE > SEARCH_TIMEOUT_MS) {
+                    if (timeManager.softExpired()) {
+                        System.out.println("[剪枝搜索] 已到软时限，停止迭代。");
+                        break;
+                    }
+                    if (estimateSearchTime(depth) + ITERATION_TIME_RESERVE > deadline.remainingMillis()) {
                         System.out.println("[剪枝搜索] 预估深度 " + depth + " 将超时，停止迭代。");
                         break;
                     }
                     System.out.println("[剪枝搜索] 深度 " + depth + " 搜索中...");
-                    Move currentBest = parallelRootSearch(b, depth, injectedCandidates);
+                    Move currentBest = parallelSearch(work, depth, injectedCandidates, previousBest, deadline);
+                    if (deadline.isAborted()) {
+                        System.out.println("[剪枝搜索] 深度 " + depth + " 到达时限被中止，保留上一轮结果。");
+                        break;
+                    }
                     if (currentBest != null) {
-                        Board tempBoard = b.clone();
-                        applyMoveToBoard(tempBoard, currentBest, color);
-                        int score = evaluate(tempBoard); // 使用主评估函数获取最终分数
+                        previousBest = currentBest;
+                        int base = work.getMoveCount();
+                        applyMoveToBoard(work, currentBest, color);
+                        int score = evaluate(work); // 使用主评估函数获取最终分数
+                        work.rollback(base);
                         alphaBetaBestMove.set(currentBest);
                         alphaBetaBestScore.set(score);
+                        timeManager.onIteration(currentBest);
+                        if (score >= WIN_SCORE) {
+                            timeManager.forcedMove();
+                        }
                         System.out.println("[剪枝搜索] 更新深度 " + depth + " 最佳走法: " + moveToString(currentBest) + "，分数: " + score);
                     }
                 }
@@ -445,18 +745,20 @@ public class AlphaBetaAI extends AIPlayer {
         Future<?> greedyFuture = executor.submit(() -> {
             try {
                 System.out.println("[贪心算法] 开始并行计算...");
-                while (!alphaBetaFinished.get() && !Thread.currentThread().isInterrupted()) {
-                    Move currentGreedyMove = parallelGreedySearch(b);
+                Board work = b.clone();
+                while (!alphaBetaFinished.get() && !deadline.isAborted()) {
+                    Move currentGreedyMove = parallelGreedySearch(work);
                     if (currentGreedyMove != null) {
-                        Board tempBoard = b.clone();
-                        applyMoveToBoard(tempBoard, currentGreedyMove, color);
-                        int score = evaluate(tempBoard);
+                        int base = work.getMoveCount();
+                        applyMoveToBoard(work, currentGreedyMove, color);
+                        int score = evaluate(work);
+                        work.rollback(base);
                         if (score > greedyBestScore.get()) {
                             greedyBestMove.set(currentGreedyMove);
                             greedyBestScore.set(score);
                         }
                     }
-                    Thread.sleep(GREEDY_UPDATE_INTERVAL);
+                    deadline.await(GREEDY_UPDATE_INTERVAL);
                 }
                 System.out.println("[贪心算法] 完成。");
             } catch (InterruptedException e) {
@@ -467,15 +769,17 @@ public class AlphaBetaAI extends AIPlayer {
         });
 
         try {
-            alphaBetaFuture.get(SEARCH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            alphaBetaFuture.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
         } catch (TimeoutException e) {
             System.out.println("[混合策略] 剪枝搜索超过时间限制，终止搜索");
-            alphaBetaFuture.cancel(true);
         } catch (Exception e) {
             System.out.println("[混合策略] 剪枝搜索异常: " + e.getMessage());
         }
 
-        greedyFuture.cancel(true);
+        // 通知两个搜索线程停止并等它们真正退出，返回走法后不再占用 CPU
+        deadline.abort();
+        awaitQuietly(alphaBetaFuture);
+        awaitQuietly(greedyFuture);
         long elapsedTime = System.currentTimeMillis() - startTime;
         System.out.println("[混合策略] 总耗时: " + elapsedTime + "ms");
 
@@ -527,6 +831,16 @@ public class AlphaBetaAI extends AIPlayer {
         return finalMove;
     }
 
+    private static void awaitQuietly(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            // 结果已不需要
+        }
+    }
+
     private long estimateSearchTime(int depth) {
         if (depth <= 2) return 100;
         if (depth == 3) return 300;
@@ -591,8 +905,8 @@ public class AlphaBetaAI extends AIPlayer {
         List<Future<ScoredMove>> futures = new ArrayList<>();
         for (ScoredMove sm : candidates) {
             final Move mv = sm.move;
+            final Board temp = b.clone();
             futures.add(cs.submit(() -> {
-                Board temp = b.clone();
                 applyMoveToBoard(temp, mv, color);
                 int score = enhancedEvaluate(temp, color);
                 return new ScoredMove(mv, score);
@@ -618,11 +932,12 @@ public class AlphaBetaAI extends AIPlayer {
     }
 
     private int enhancedEvaluate(Board b, PieceColor player) {
-        int standardScore = evaluate(b);
+        Evaluation e = evaluateAll(b);
+        int standardScore = e.total();
         int threatBonus = 0;
-        if (countThreats(b, player) > 0) threatBonus += 5000;
-        if (countThreats(b, player.opposite()) > 0) threatBonus -= 10000;
-        int pathControlScore = evaluatePathControl(b, player);
+        if ((player == color ? e.myThreats : e.oppThreats) > 0) threatBonus += 5000;
+        if ((player == color ? e.oppThreats : e.myThreats) > 0) threatBonus -= 10000;
+        int pathControlScore = (player == color) ? e.pathControl : evaluatePathControl(b, player);
         return standardScore + threatBonus + pathControlScore;
     }
 
@@ -632,7 +947,86 @@ public class AlphaBetaAI extends AIPlayer {
         return "(" + move.getRow1() + "," + move.getCol1() + ") & (" + move.getRow2() + "," + move.getCol2() + ")";
     }
 
-    private Move parallelRootSearch(Board root, int depth, List<Move> injectedCandidates) {
+    /**
+     * Lazy SMP 根搜索：主线程在 depth 上搜索，辅助线程同时以 depth 或 depth+1、
+     * 轮换后的根走法顺序搜索同一局面。线程之间只通过置换表共享信息，
+     * 主线程完成后通知辅助线程停止，并以主线程的结果为准。
+     */
+    private Move lazySmpSearch(Board root, int depth, List<Move> injectedCandidates, Move previousBest, SearchDeadline deadline) {
+        List<ScoredMove> candidates = buildRootCandidates(root, depth, injectedCandidates, previousBest);
+        if (candidates.isEmpty()) return enhancedFallbackMove(root);
+        System.out.println("[剪枝搜索] 根节点分支因子: " + candidates.size() + "，搜索线程: " + searchThreads);
+
+        StopFlag stop = new StopFlag(deadline);
+        List<Future<?>> helpers = new ArrayList<>(searchThreads - 1);
+        for (int i = 1; i < searchThreads; i++) {
+            final int helperDepth = depth + (i & 1);
+            final List<ScoredMove> order = new ArrayList<>(candidates);
+            Collections.rotate(order, -(i % order.size()));
+            final Board temp = root.clone();
+            helpers.add(smpPool.submit(() -> searchRoot(temp, helperDepth, order, stop, false)));
+        }
+
+        RootResult result;
+        try {
+            result = searchRoot(root, depth, candidates, stop, false);
+        } finally {
+            stop.stop();
+            for (Future<?> f : helpers) {
+                try {
+                    f.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    System.err.println("[lazySmpSearch] 辅助线程执行异常: " + e.getCause());
+                }
+            }
+        }
+        return result != null ? result.move : null;
+    }
+
+    /**
+     * 基于 ForkJoinPool 的内部节点并行 PVS（Young Brothers Wait）：每个 PV 节点先串行搜索长子，
+     * 再以收紧后的 alpha 把其余兄弟 fork 成 RecursiveTask；任一兄弟 fail-high 时协作式叫停其余兄弟。
+     * 着法排序、威胁延伸与置换表边界都沿用 pvs。
+     */
+    private Move ybwSearch(Board root, int depth, List<Move> injectedCandidates, Move previousBest, SearchDeadline deadline) {
+        List<ScoredMove> candidates = buildRootCandidates(root, depth, injectedCandidates, previousBest);
+        if (candidates.isEmpty()) return enhancedFallbackMove(root);
+        System.out.println("[剪枝搜索] 根节点分支因子: " + candidates.size() + "，YBW 并行度: " + fjPool.getParallelism());
+        RootResult result = fjPool.invoke(ForkJoinTask.adapt(
+                () -> searchRoot(root, depth, candidates, new StopFlag(deadline), true)));
+        return result != null ? result.move : null;
+    }
+
+    /**
+     * 并行搜索同一节点下除长子外的兄弟走法，返回其中最好的一个（全部被叫停时返回 null）。
+     * 每个兄弟持有自己的棋盘副本。
+     */
+    private RootResult searchSiblings(Board b, List<ScoredMove> siblings, int childDepth, int alpha, int beta,
+                                      PieceColor player, int threatDepth, int ply, StopFlag stop) {
+        StopFlag siblingStop = new StopFlag(stop);
+        List<SiblingTask> tasks = new ArrayList<>(siblings.size());
+        for (ScoredMove sm : siblings) {
+            Board child = b.clone();
+            if (!child.apply(sm.move, player)) continue;
+            SiblingTask task = new SiblingTask(child, sm.move, childDepth, alpha, beta, player.opposite(), threatDepth, ply + 1,
+                    siblingStop);
+            task.fork();
+            tasks.add(task);
+        }
+        RootResult best = null;
+        for (SiblingTask task : tasks) {
+            int score = task.join();
+            if (task.valid && (best == null || score > best.score)) {
+                best = new RootResult(task.move, score);
+            }
+        }
+        return best;
+    }
+
+    private List<ScoredMove> buildRootCandidates(Board root, int depth, List<Move> injectedCandidates, Move previousBest) {
         List<ScoredMove> candidates = generateScoredMovesForBoard(root, color);
         if (injectedCandidates != null && !injectedCandidates.isEmpty()) {
             List<ScoredMove> injectedScoredMoves = new ArrayList<>();
@@ -648,52 +1042,118 @@ public class AlphaBetaAI extends AIPlayer {
                 }
             }
             if (!injectedScoredMoves.isEmpty()) {
+                candidates = new ArrayList<>(candidates);
                 candidates.addAll(0, injectedScoredMoves);
             }
         }
-        if (candidates.isEmpty()) return enhancedFallbackMove(root);
+        if (candidates.isEmpty()) return candidates;
+        // 上一轮迭代的最佳走法排在最前，避免被分支截断
+        candidates = orderFirst(candidates, previousBest);
         int rootLimit = Math.max(8, Math.min(24 - depth * 2, candidates.size()));
         if (candidates.size() > rootLimit) {
             candidates = candidates.subList(0, rootLimit);
         }
-        System.out.println("[剪枝搜索] 根节点分支因子: " + candidates.size());
-        CompletionService<RootResult> cs = new ExecutorCompletionService<>(executor);
-        List<Future<RootResult>> futures = new ArrayList<>(candidates.size());
-        for (ScoredMove sm : candidates) {
-            final Move mv = sm.move;
-            futures.add(cs.submit(() -> {
-                Board temp = root.clone();
-                applyMoveToBoard(temp, mv, color);
-                int score = -pvs(temp, depth - 1, -INF, INF, color.opposite(), 0);
-                return new RootResult(mv, score);
-            }));
-        }
+        return candidates;
+    }
+
+    /**
+     * 根节点 PVS：后续根走法共享前面走法得到的 alpha 下界。
+     * split 为 true 时按 YBW 方式并行（须在 fjPool 中调用）。
+     * stop 被置位（或截止时间到达）后立即放弃并返回 null。
+     */
+    private RootResult searchRoot(Board b, int depth, List<ScoredMove> candidates, StopFlag stop, boolean split) {
         Move bestMove = null;
-        int bestScore = -INF;
-        try {
-            for (int i = 0; i < futures.size(); i++) {
-                Future<RootResult> f = cs.take();
-                if (f != null) {
-                    RootResult rr = f.get();
-                    if (rr.score > bestScore) {
-                        bestScore = rr.score;
-                        bestMove = rr.move;
-                        if (bestScore >= WIN_SCORE) break;
-                    }
+        int alpha = -INF;
+        for (int i = 0; i < candidates.size(); i++) {
+            ScoredMove sm = candidates.get(i);
+            if (split && bestMove != null && depth >= YBW_MIN_SPLIT_DEPTH) {
+                RootResult r = searchSiblings(b, candidates.subList(i, candidates.size()), depth - 1, alpha, INF, color, 0, 0, stop);
+                if (r != null && !stop.isStopped() && r.score > alpha) {
+                    alpha = r.score;
+                    bestMove = r.move;
                 }
+                break;
             }
-        } catch (InterruptedException e) {
-            System.out.println("[parallelRootSearch] 搜索任务被主线程中断(超时)，正常退出。");
-            Thread.currentThread().interrupt();
-        } catch (ExecutionException e) {
-            System.err.println("[parallelRootSearch] 搜索子任务执行异常: " + e.getCause());
-            e.getCause().printStackTrace();
-        } finally {
-            for (Future<RootResult> fu : futures) {
-                fu.cancel(true);
+            if (!b.apply(sm.move, color)) continue;
+            int score;
+            if (bestMove == null) {
+                score = -pvs(b, depth - 1, -INF, INF, color.opposite(), 0, 1, sm.move, stop, split);
+            } else {
+                score = -pvs(b, depth - 1, -alpha - 1, -alpha, color.opposite(), 0, 1, sm.move, stop, false);
+                if (score > alpha && !stop.isStopped()) {
+                    score = -pvs(b, depth - 1, -INF, -alpha, color.opposite(), 0, 1, sm.move, stop, false);
+                }
+            }
+            b.undo(sm.move);
+            if (stop.isStopped()) break;
+            if (bestMove == null || score > alpha) {
+                alpha = score;
+                bestMove = sm.move;
+                if (alpha >= WIN_SCORE) break;
             }
         }
-        return bestMove;
+        if (stop.isStopped()) return null;
+        return bestMove != null ? new RootResult(bestMove, alpha) : null;
+    }
+
+    /**
+     * @return 本深度的最佳走法；截止时间到达而中止时返回 null
+     */
+    private Move parallelSearch(Board root, int depth, List<Move> injectedCandidates, Move previousBest, SearchDeadline deadline) {
+        if (parallelMode == ParallelMode.YBW) {
+            return ybwSearch(root, depth, injectedCandidates, previousBest, deadline);
+        }
+        return lazySmpSearch(root, depth, injectedCandidates, previousBest, deadline);
+    }
+
+    /**
+     * 不限时地对给定局面迭代加深到 maxDepth，返回主线程的最佳走法；不修改传入的棋盘。
+     * 供基准测试比较不同线程数下的到达深度用时。
+     */
+    public Move searchToDepth(Board position, PieceColor side, int maxDepth) {
+        setColor(side);
+        transpositionTable.newSearch();
+        Board root = position.clone();
+        Move best = null;
+        for (int depth = 2; depth <= maxDepth; depth++) {
+            Move current = parallelSearch(root, depth, null, best, SearchDeadline.unlimited());
+            if (current != null) best = current;
+        }
+        return best;
+    }
+
+    /**
+     * 以 side 为我方评估 position，依次返回 evaluate、enhancedEvaluate(side)、enhancedEvaluate(side 的对方)
+     * 以及融合评估得到的双方威胁数；不修改传入的棋盘。
+     * 供评估函数的差分校验（{@code main.EvaluationCheck}）使用。
+     */
+    public int[] evaluationTerms(Board position, PieceColor side) {
+        setColor(side);
+        Evaluation e = evaluateAll(position);
+        return new int[]{e.total(), enhancedEvaluate(position, side), enhancedEvaluate(position, side.opposite()),
+                e.myThreats, e.oppThreats};
+    }
+
+    /**
+     * 从给定局面（轮到 side 走）新建一棵 MCTS 树并连续模拟 millis 毫秒，不设模拟次数上限，也不修改 position。
+     * 供基准测试比较不同线程数下每秒完成的模拟次数。
+     * @return 完成的模拟次数
+     */
+    public int runPlayouts(Board position, PieceColor side, long millis) {
+        setColor(side);
+        mctsTree.reset(side);
+        return runMcts(MctsTree.ROOT, position, SearchDeadline.after(millis), false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 关闭搜索线程池。引擎不再使用时调用。
+     */
+    @Override
+    public void shutdown() {
+        stopPondering();
+        executor.shutdownNow();
+        if (smpPool != null) smpPool.shutdownNow();
+        fjPool.shutdownNow();
     }
 
     private String getMovePairKey(Move m) {
@@ -701,22 +1161,32 @@ public class AlphaBetaAI extends AIPlayer {
         return getMovePairKey(new Move(m.getRow1(), m.getCol1()), new Move(m.getRow2(), m.getCol2()));
     }
 
-    private int pvs(Board b, int depth, int alpha, int beta, PieceColor player, int threatDepth) {
+    /**
+     * @param ply          距根节点的层数，用于杀手走法
+     * @param previousMove 对方刚走的一手，用于反制走法
+     * @param split        为 true 时本节点按 PV 节点处理：长子串行搜索后，其余兄弟在 ForkJoinPool 中并行搜索。
+     *                     只能在 fjPool 的工作线程中以 true 调用
+     */
+    private int pvs(Board b, int depth, int alpha, int beta, PieceColor player, int threatDepth, int ply, Move previousMove,
+                    StopFlag stop, boolean split) {
+        if (stop.poll()) return 0;
         nodesExplored++;
-        long hash = calculateBoardHash(b);
-        CacheEntry entry = transpositionTable.get(hash);
-        if (entry != null && entry.depth >= depth) {
+        long hash = b.hash();
+        long entry = transpositionTable.probe(hash);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
             cacheHits++;
-            if (entry.flag == 0) return entry.score;
-            if (entry.flag == 1 && entry.score >= beta) return entry.score;
-            if (entry.flag == 2 && entry.score <= alpha) return entry.score;
+            int ttScore = TranspositionTable.score(entry);
+            int ttFlag = TranspositionTable.flag(entry);
+            if (ttFlag == TranspositionTable.EXACT) return ttScore;
+            if (ttFlag == TranspositionTable.LOWER_BOUND && ttScore >= beta) return ttScore;
+            if (ttFlag == TranspositionTable.UPPER_BOUND && ttScore <= alpha) return ttScore;
         } else {
             cacheMisses++;
         }
-        PieceColor winner = checkWinner(b);
+        PieceColor winner = b.winner();
         if (winner != null) {
             int val = (winner == color) ? WIN_SCORE : -WIN_SCORE;
-            transpositionTable.put(hash, new CacheEntry(val, depth, 0));
+            transpositionTable.store(hash, val, depth, TranspositionTable.EXACT, null);
             return val;
         }
         if (depth > 0 && threatDepth < 2) {
@@ -728,51 +1198,96 @@ public class AlphaBetaAI extends AIPlayer {
         }
         if (depth == 0) {
             int val = evaluate(b);
-            transpositionTable.put(hash, new CacheEntry(val, 0, 0));
+            transpositionTable.store(hash, val, 0, TranspositionTable.EXACT, null);
             return val;
         }
-        List<ScoredMove> moves = generateScoredMovesForBoard(b, player);
+        List<ScoredMove> moves = generateOrderedMoves(b, player, ply, previousMove);
         List<ScoredMove> injected = generateDefensiveCandidates(b, player);
         if (!injected.isEmpty()) {
             injected.addAll(moves);
             moves = injected;
         }
         if (moves.isEmpty()) return 0;
+        // 浅层迭代或前几回合留下的最佳走法先搜，尽早收紧窗口
+        if (entry != 0) {
+            moves = orderFirst(moves, TranspositionTable.bestMove(entry));
+        }
         int branchLimit = Math.max(6, Math.min(22 - depth * 3, moves.size()));
         if (moves.size() > branchLimit) {
             moves = moves.subList(0, branchLimit);
         }
         boolean first = true;
         int best = -INF;
-        int flag = 2;
-        for (ScoredMove sm : moves) {
-            Board nb = b.clone();
-            applyMoveToBoard(nb, sm.move, player);
+        Move bestMove = null;
+        int flag = TranspositionTable.UPPER_BOUND;
+        for (int i = 0; i < moves.size(); i++) {
+            ScoredMove sm = moves.get(i);
+            if (split && !first && depth >= YBW_MIN_SPLIT_DEPTH) {
+                // 长子已串行搜完（Young Brothers Wait），其余兄弟带着收紧后的 alpha 并行搜索
+                RootResult r = searchSiblings(b, moves.subList(i, moves.size()), depth - 1, alpha, beta, player, threatDepth, ply, stop);
+                if (stop.isStopped()) return 0;
+                if (r != null) {
+                    if (r.score > best) {
+                        best = r.score;
+                        bestMove = r.move;
+                    }
+                    if (r.score > alpha) {
+                        alpha = r.score;
+                        flag = TranspositionTable.EXACT;
+                    }
+                    if (alpha >= beta) {
+                        moveHistory.recordCutoff(r.move, player, ply, previousMove, depth);
+                        transpositionTable.store(hash, beta, depth, TranspositionTable.LOWER_BOUND, r.move);
+                        return beta;
+                    }
+                }
+                break;
+            }
+            if (!b.apply(sm.move, player)) continue;
             int score;
             if (first) {
                 first = false;
-                score = -pvs(nb, depth - 1, -beta, -alpha, player.opposite(), threatDepth);
+                score = -pvs(b, depth - 1, -beta, -alpha, player.opposite(), threatDepth, ply + 1, sm.move, stop, split);
             } else {
-                score = -pvs(nb, depth - 1, -alpha - 1, -alpha, player.opposite(), threatDepth);
+                score = -pvs(b, depth - 1, -alpha - 1, -alpha, player.opposite(), threatDepth, ply + 1, sm.move, stop, false);
                 if (score > alpha && score < beta) {
-                    score = -pvs(nb, depth - 1, -beta, -alpha, player.opposite(), threatDepth);
+                    score = -pvs(b, depth - 1, -beta, -alpha, player.opposite(), threatDepth, ply + 1, sm.move, stop, false);
                 }
             }
-            if (score > best) best = score;
+            b.undo(sm.move);
+            // 被叫停时直接返回，不把不完整的结果写进共享置换表
+            if (stop.isStopped()) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = sm.move;
+            }
             if (score > alpha) {
                 alpha = score;
-                flag = 0;
+                flag = TranspositionTable.EXACT;
             }
             if (alpha >= beta) {
-                flag = 1;
-                transpositionTable.put(hash, new CacheEntry(beta, depth, flag));
+                moveHistory.recordCutoff(sm.move, player, ply, previousMove, depth);
+                transpositionTable.store(hash, beta, depth, TranspositionTable.LOWER_BOUND, sm.move);
                 return beta;
             }
         }
-        transpositionTable.put(hash, new CacheEntry(best, depth, flag));
+        transpositionTable.store(hash, best, depth, flag, bestMove);
         return best;
     }
 
+    /**
+     * 把指定走法提到列表最前；不在列表中时直接插入（非法走法会在 apply 时被跳过）。
+     */
+    private static List<ScoredMove> orderFirst(List<ScoredMove> moves, Move first) {
+        if (first == null) return moves;
+        List<ScoredMove> ordered = new ArrayList<>(moves.size() + 1);
+        ordered.add(new ScoredMove(first, INF));
+        for (ScoredMove sm : moves) {
+            if (!sm.move.equals(first)) ordered.add(sm);
+        }
+        return ordered;
+    }
+
     private boolean hasUrgentThreatAtDepth(Board b, PieceColor who, int depth) {
         int depthAdjustedThreshold = Math.max(THREAT_IMPORTANT, THREAT_URGENT - depth * 5000);
         return hasThreat(b, who, depthAdjustedThreshold);
@@ -780,54 +1295,81 @@ public class AlphaBetaAI extends AIPlayer {
 
     // ===================== 评估函数（与前一版相同） =====================
     private int evaluate(Board b) {
-        int myScore = evaluatePlayerWithPatterns(b, color, true);
-        int oppScore = evaluatePlayerWithPatterns(b, color.opposite(), false);
-        int pathControlScore = evaluatePathControl(b, color);
-        return myScore - oppScore + pathControlScore;
+        return evaluateAll(b).total();
     }
 
-    private int evaluatePathControl(Board b, PieceColor player) {
-        String boardKey = getBoardKey(b);
-        if (pathValueCache.containsKey(boardKey)) return pathValueCache.get(boardKey);
-        int score = 0;
-        int[][] dirs = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
-        for (int[] dir : dirs) {
+    /**
+     * 单趟融合评估：每个方向沿每条线滑动一次 8 格编码，同时查出双方棋型，
+     * 一并得到双方棋型分（含位置分）、路径控制分以及双方威胁数。
+     * 各项与逐格逐方向分别扫描（双方棋型各一遍、路径控制一遍、双方 countThreats 各一遍）的结果完全一致，
+     * 由 {@code main.EvaluationCheck} 对照旧版三趟扫描的冻结副本校验。
+     */
+    private Evaluation evaluateAll(Board b) {
+        Evaluation e = new Evaluation();
+        int us = (color == PieceColor.BLACK) ? 0 : 1;
+        byte[] usTable = PATTERN_TABLE[us];
+        byte[] themTable = PATTERN_TABLE[1 - us];
+        int usStone = us + 1;
+        int center = 0;
+        for (int r = 0; r < Board.SIZE; r++) {
+            for (int c = 0; c < Board.SIZE; c++) {
+                int stone = b.stoneCode(r, c);
+                if (stone == 0) continue;
+                boolean mine = stone == usStone;
+                if (mine) e.myPatternScore += POSITION_SCORE[r][c];
+                else e.oppPatternScore += POSITION_SCORE[r][c];
+                if (r >= 5 && r <= 13 && c >= 5 && c <= 13) center += mine ? 15 : -15;
+            }
+        }
+        for (int[] dir : EVAL_DIRS) {
+            int dr = dir[0], dc = dir[1];
             for (int r = 0; r < Board.SIZE; r++) {
                 for (int c = 0; c < Board.SIZE; c++) {
-                    score += evaluateStrategicPath(b, r, c, dir[0], dir[1], player);
+                    if (b.isValid(r - dr, c - dc)) continue; // 只从每条线的起点出发
+                    int code = 3; // k = -1 处在棋盘外
+                    for (int k = 0; k <= 6; k++) {
+                        code |= b.stoneCode(r + k * dr, c + k * dc) << (2 * (k + 1));
+                    }
+                    for (int rr = r, cc = c; b.isValid(rr, cc); rr += dr, cc += dc) {
+                        int mine = usTable[code];
+                        if (mine >= 0) {
+                            int score = SCORE_SELF[mine];
+                            e.myPatternScore += score;
+                            // 六连没有可封堵的空位，collectThreats 不会把它记为威胁
+                            if (score >= THREAT_IMPORTANT && mine != PATTERN_SIX) e.myThreats++;
+                        }
+                        int theirs = themTable[code];
+                        if (theirs >= 0) {
+                            int score = SCORE_OPPONENT[theirs];
+                            e.oppPatternScore += score;
+                            if (score >= THREAT_IMPORTANT && theirs != PATTERN_SIX) e.oppThreats++;
+                        }
+                        code = (code >>> 2) | (b.stoneCode(rr + 7 * dr, cc + 7 * dc) << 14);
+                    }
                 }
             }
         }
-        score += evaluateCenterControl(b, player);
-        pathValueCache.put(boardKey, score);
-        return score;
+        e.pathControl = evaluateOpenRoads(b, color) + center;
+        return e;
     }
 
-    private String getBoardKey(Board b) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                PieceColor pc = b.get(i, j);
-                sb.append(pc == color ? '1' : (pc == color.opposite() ? '2' : '0'));
-            }
-        }
-        return sb.toString();
+    /**
+     * 路径控制分：直接读取棋盘增量维护的路表直方图，
+     * 与逐条路计数（己方路 5/子 + 2/空，对方路 -6/子 - 3/空，空路 1）结果一致。
+     */
+    private int evaluatePathControl(Board b, PieceColor player) {
+        return evaluateOpenRoads(b, player) + evaluateCenterControl(b, player);
     }
 
-    private int evaluateStrategicPath(Board b, int r, int c, int dr, int dc, PieceColor player) {
-        int myCount = 0, oppCount = 0, emptyCount = 0;
-        for (int i = 0; i < 6; i++) {
-            int rr = r + i * dr, cc = c + i * dc;
-            if (!b.isValid(rr, cc)) return 0;
-            PieceColor pc = b.get(rr, cc);
-            if (pc == player) myCount++;
-            else if (pc == player.opposite()) oppCount++;
-            else emptyCount++;
+    private int evaluateOpenRoads(Board b, PieceColor player) {
+        PieceColor opponent = player.opposite();
+        int score = b.openWindows(player, 0);
+        for (int k = 1; k <= Board.WINDOW_LENGTH; k++) {
+            int empty = Board.WINDOW_LENGTH - k;
+            score += b.openWindows(player, k) * (k * 5 + empty * 2);
+            score -= b.openWindows(opponent, k) * (k * 6 + empty * 3);
         }
-        if (myCount > 0 && oppCount > 0) return 0;
-        if (myCount > 0) return myCount * 5 + emptyCount * 2;
-        if (oppCount > 0) return -(oppCount * 6 + emptyCount * 3);
-        return 1;
+        return score;
     }
 
     private int evaluateCenterControl(Board b, PieceColor player) {
@@ -843,56 +1385,29 @@ public class AlphaBetaAI extends AIPlayer {
         return score;
     }
 
-    private int evaluatePlayerWithPatterns(Board b, PieceColor player, boolean isUs) {
-        int totalScore = 0, positionScore = 0;
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                if (b.get(i, j) == player) {
-                    positionScore += POSITION_SCORE[i][j];
-                }
-            }
-        }
-        int[][] dirs = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                for (int[] dir : dirs) {
-                    totalScore += evaluateLinePattern(b, r, c, dir[0], dir[1], player, isUs);
-                }
-            }
-        }
-        return totalScore + positionScore;
-    }
-
     private int evaluateLinePattern(Board b, int r, int c, int dr, int dc, PieceColor player, boolean isUs) {
-        List<Integer> line = new ArrayList<>();
-        for (int k = -2; k <= 6; k++) {
-            int rr = r + k * dr, cc = c + k * dc;
-            if (!b.isValid(rr, cc)) line.add(-1);
-            else {
-                PieceColor pc = b.get(rr, cc);
-                if (pc == player) line.add(1);
-                else if (pc == player.opposite()) line.add(2);
-                else line.add(0);
-            }
+        int code = 0;
+        for (int k = -1; k <= 6; k++) {
+            code |= b.stoneCode(r + k * dr, c + k * dc) << (2 * (k + 1));
         }
-        int patternType = analyzePattern(line);
+        int patternType = PATTERN_TABLE[player == PieceColor.BLACK ? 0 : 1][code];
         if (patternType == -1) return 0;
         return isUs ? SCORE_SELF[patternType] : SCORE_OPPONENT[patternType];
     }
 
-    private int analyzePattern(List<Integer> line) {
+    private static int analyzePattern(int[] line) {
         int myCount = 0, emptyCount = 0, oppCount = 0, leftEmpty = 0, rightEmpty = 0;
-        if (line.size() < 8) return -1;
+        if (line.length < 8) return -1;
         for (int i = 2; i < 8; i++) {
-            int val = line.get(i);
+            int val = line[i];
             if (val == 1) myCount++;
             else if (val == 0) emptyCount++;
             else if (val == 2) oppCount++;
             else return -1;
         }
         if (oppCount > 0) return -1;
-        if (line.get(1) == 0) leftEmpty = 1;
-        if (line.get(8) == 0) rightEmpty = 1;
+        if (line[1] == 0) leftEmpty = 1;
+        if (line[8] == 0) rightEmpty = 1;
         if (myCount >= 6) return PATTERN_SIX;
         if (myCount == 5 && emptyCount == 1) return (leftEmpty == 1 && rightEmpty == 1) ? PATTERN_LIVE_FIVE : PATTERN_SLEEP_FIVE;
         if (myCount == 4 && emptyCount == 2) {
@@ -909,20 +1424,16 @@ public class AlphaBetaAI extends AIPlayer {
         return -1;
     }
 
-    // ===================== 候选生成（与前一版相同） =====================
+    // ===================== 候选生成 =====================
+    /**
+     * 两段式候选生成：先对每个候选点做单子的局部增量评估，只在得分最高的几个点之间组成双子，
+     * 双子得分为第一子的增量加上第一子落下后第二子的条件增量，每对只生成一次。
+     * 得分按 player 的视角，等于落子后整盘 evaluate 的结果（对手走时取反）加上封堵威胁的奖励。
+     */
     private List<ScoredMove> generateScoredMovesForBoard(Board b, PieceColor player) {
-        List<ScoredMove> scored = new ArrayList<>();
         List<int[]> base = getEmptyPositionsNearPieces(b, 2);
         if (base.size() < 12) {
-            Set<String> set = new HashSet<>();
-            for (int[] p : base) set.add(p[0] + "," + p[1]);
-            for (int[] p : getEmptyPositionsNearPieces(b, 3)) {
-                String key = p[0] + "," + p[1];
-                if (!set.contains(key)) {
-                    base.add(p);
-                    set.add(key);
-                }
-            }
+            base = getEmptyPositionsNearPieces(b, 3);
         }
         Set<Cell> myThreats = collectThreatCells(b, player);
         Set<Cell> oppThreats = collectThreatCells(b, player.opposite());
@@ -930,18 +1441,111 @@ public class AlphaBetaAI extends AIPlayer {
         for (int[] p : base) unique.put(p[0] + "," + p[1], p);
         for (Cell c : myThreats) unique.put(c.r + "," + c.c, new int[]{c.r, c.c});
         for (Cell c : oppThreats) unique.put(c.r + "," + c.c, new int[]{c.r, c.c});
+        List<int[]> cells = new ArrayList<>(unique.values());
+        if (cells.size() < 2) return Collections.emptyList();
+
+        // 1. 单子：只重算经过该点的棋型，按 player 视角排序，对手的威胁点额外加分
+        int sign = player == color ? 1 : -1;
+        int n = cells.size();
+        int[] delta = new int[n];
+        Integer[] order = new Integer[n];
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            int[] p = cells.get(i);
+            delta[i] = stoneDelta(b, p[0], p[1], player);
+            rank[i] = sign * delta[i] + (oppThreats.contains(new Cell(p[0], p[1])) ? THREAT_URGENT / 2 : 0);
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Integer.compare(rank[y], rank[x]));
+
+        // 2. 双子：第一子取前 FIRST_STONES 个，第二子只取排在它之后、前 SECOND_STONES 个以内的点
+        int baseScore = evaluate(b);
+        int first = Math.min(FIRST_STONES, n), second = Math.min(SECOND_STONES, n);
+        List<ScoredMove> scored = new ArrayList<>();
+        for (int i = 0; i < first; i++) {
+            int[] a = cells.get(order[i]);
+            b.makeMove(a[0], a[1], player);
+            for (int j = i + 1; j < second; j++) {
+                int[] c = cells.get(order[j]);
+                Move m = new Move(a[0], a[1], c[0], c[1]);
+                int score = sign * (baseScore + delta[order[i]] + stoneDelta(b, c[0], c[1], player));
+                if (coversAny(m, oppThreats)) {
+                    score += THREAT_URGENT / 2;
+                }
+                scored.add(new ScoredMove(m, score));
+            }
+            b.unmakeMove(a[0], a[1]);
+        }
+        scored.sort((x, y) -> Integer.compare(y.score, x.score));
+        return scored.subList(0, Math.min(24, scored.size()));
+    }
+
+    /**
+     * who 在 (r, c) 落一子后 evaluate 的变化量（己方视角）。
+     * 棋型只重算覆盖该点的 8 格编码，位置分、中心分与路表都是局部或 O(1) 的。
+     */
+    private int stoneDelta(Board b, int r, int c, PieceColor who) {
+        int before = localPatternScore(b, r, c) + evaluateOpenRoads(b, color);
+        b.makeMove(r, c, who);
+        int after = localPatternScore(b, r, c) + evaluateOpenRoads(b, color);
+        b.unmakeMove(r, c);
+        int placement = POSITION_SCORE[r][c] + (r >= 5 && r <= 13 && c >= 5 && c <= 13 ? 15 : 0);
+        return after - before + (who == color ? placement : -placement);
+    }
+
+    /**
+     * evaluateAll 中所有覆盖 (r, c) 的棋型编码（起点在该点之前 6 格到之后 1 格）的得分之和
+     */
+    private int localPatternScore(Board b, int r, int c) {
+        int us = (color == PieceColor.BLACK) ? 0 : 1;
+        byte[] usTable = PATTERN_TABLE[us];
+        byte[] themTable = PATTERN_TABLE[1 - us];
+        int score = 0;
+        for (int[] dir : EVAL_DIRS) {
+            int dr = dir[0], dc = dir[1];
+            for (int t = -6; t <= 1; t++) {
+                int sr = r + t * dr, sc = c + t * dc;
+                if (!b.isValid(sr, sc)) continue;
+                int code = 0;
+                for (int k = -1; k <= 6; k++) {
+                    code |= b.stoneCode(sr + k * dr, sc + k * dc) << (2 * (k + 1));
+                }
+                int mine = usTable[code];
+                if (mine >= 0) score += SCORE_SELF[mine];
+                int theirs = themTable[code];
+                if (theirs >= 0) score -= SCORE_OPPONENT[theirs];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * 内部节点的候选生成：候选点与 generateScoredMovesForBoard 相同，但不做静态评估，
+     * 而是按威胁覆盖、杀手/反制走法与历史分排序
+     */
+    private List<ScoredMove> generateOrderedMoves(Board b, PieceColor player, int ply, Move previousMove) {
+        List<int[]> base = getEmptyPositionsNearPieces(b, 2);
+        if (base.size() < 12) {
+            base = getEmptyPositionsNearPieces(b, 3);
+        }
+        Set<Cell> myThreats = collectThreatCells(b, player);
+        Set<Cell> oppThreats = collectThreatCells(b, player.opposite());
+        Map<String, int[]> unique = new LinkedHashMap<>();
+        for (Cell c : oppThreats) unique.put(c.r + "," + c.c, new int[]{c.r, c.c});
+        for (Cell c : myThreats) unique.put(c.r + "," + c.c, new int[]{c.r, c.c});
+        for (int[] p : base) unique.putIfAbsent(p[0] + "," + p[1], p);
         List<int[]> finalCands = new ArrayList<>(unique.values());
         if (finalCands.size() < 2) return Collections.emptyList();
-        Set<Cell> urgentOppCells = collectThreatCells(b, player.opposite());
         int cap = Math.min(30, finalCands.size());
+        List<ScoredMove> scored = new ArrayList<>(cap * (cap - 1) / 2);
         for (int i = 0; i < cap; i++) {
             for (int j = i + 1; j < cap; j++) {
                 int[] a = finalCands.get(i), c = finalCands.get(j);
                 Move m = new Move(a[0], a[1], c[0], c[1]);
-                int score = quickEvaluateMove(b, m, player);
-                if (coversAny(m, urgentOppCells)) {
-                    score += THREAT_URGENT / 2;
-                }
+                int score = moveHistory.score(m, player, ply, previousMove)
+                        + POSITION_SCORE[a[0]][a[1]] + POSITION_SCORE[c[0]][c[1]];
+                if (coversAny(m, oppThreats)) score += THREAT_ORDER_BONUS;
+                if (coversAny(m, myThreats)) score += THREAT_ORDER_BONUS / 2;
                 scored.add(new ScoredMove(m, score));
             }
         }
@@ -1048,11 +1652,12 @@ public class AlphaBetaAI extends AIPlayer {
         for (int i = 0; i < limit; i++) {
             for (int j = i + 1; j < limit; j++) {
                 int[] p1 = empties.get(i), p2 = empties.get(j);
-                Board tb = b.clone();
-                tb.makeMove(p1[0], p1[1], who);
-                if (tb.checkWin(p1[0], p1[1], who)) return new Move(p1[0], p1[1], p2[0], p2[1]);
-                tb.makeMove(p2[0], p2[1], who);
-                if (tb.checkWin(p2[0], p2[1], who)) return new Move(p1[0], p1[1], p2[0], p2[1]);
+                b.makeMove(p1[0], p1[1], who);
+                b.makeMove(p2[0], p2[1], who);
+                boolean wins = b.checkWin(p1[0], p1[1], who) || b.checkWin(p2[0], p2[1], who);
+                b.unmakeMove(p2[0], p2[1]);
+                b.unmakeMove(p1[0], p1[1]);
+                if (wins) return new Move(p1[0], p1[1], p2[0], p2[1]);
             }
         }
         return null;
@@ -1061,10 +1666,10 @@ public class AlphaBetaAI extends AIPlayer {
     private Move findDoubleThreatMove(Board b, PieceColor who) {
         List<ScoredMove> moves = generateScoredMovesForBoard(b, who);
         for (ScoredMove sm : moves) {
-            if (sm.score >= THREAT_URGENT) {
-                Board tb = b.clone();
-                applyMoveToBoard(tb, sm.move, who);
-                if (countThreats(tb, who) >= 2) return sm.move;
+            if (sm.score >= THREAT_URGENT && b.apply(sm.move, who)) {
+                int threats = countThreats(b, who);
+                b.undo(sm.move);
+                if (threats >= 2) return sm.move;
             }
         }
         return null;
@@ -1130,12 +1735,6 @@ public class AlphaBetaAI extends AIPlayer {
 
     // ===================== 辅助函数与类 =====================
 
-    private int quickEvaluateMove(Board b, Move m, PieceColor who) {
-        Board tb = b.clone();
-        applyMoveToBoard(tb, m, who);
-        return evaluate(tb);
-    }
-
     private int countThreats(Board b, PieceColor who) {
         return collectThreats(b, who).size();
     }
@@ -1215,32 +1814,15 @@ public class AlphaBetaAI extends AIPlayer {
     }
 
     private List<int[]> getEmptyPositionsNearPieces(Board b, int dist) {
-        List<int[]> res = new ArrayList<>();
-        boolean[][] seen = new boolean[Board.SIZE][Board.SIZE];
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                if (b.get(i, j) == PieceColor.EMPTY && hasNeighbor(b, i, j, dist)) {
-                    if (!seen[i][j]) {
-                        res.add(new int[]{i, j});
-                        seen[i][j] = true;
-                    }
-                }
-            }
+        int[] cells = new int[Board.SIZE * Board.SIZE];
+        int n = b.frontier(dist, cells);
+        List<int[]> res = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            res.add(new int[]{cells[i] / Board.SIZE, cells[i] % Board.SIZE});
         }
         return res;
     }
 
-    private boolean hasNeighbor(Board b, int r, int c, int dist) {
-        for (int dr = -dist; dr <= dist; dr++) {
-            for (int dc = -dist; dc <= dist; dc++) {
-                if (dr == 0 && dc == 0) continue;
-                int rr = r + dr, cc = c + dc;
-                if (b.isValid(rr, cc) && b.get(rr, cc) != PieceColor.EMPTY) return true;
-            }
-        }
-        return false;
-    }
-
     private void applyMove(Move move) {
         if (move != null) {
             board.makeMove(move.getRow1(), move.getCol1(), color);
@@ -1259,29 +1841,6 @@ public class AlphaBetaAI extends AIPlayer {
         }
     }
 
-    private PieceColor checkWinner(Board b) {
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                PieceColor pc = b.get(i, j);
-                if (pc != PieceColor.EMPTY && b.checkWin(i, j, pc)) return pc;
-            }
-        }
-        return null;
-    }
-
-    private long calculateBoardHash(Board b) {
-        long hash = 0, p = 31, m = 1_000_000_009, pow = 1;
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                PieceColor piece = b.get(i, j);
-                int v = (piece == PieceColor.BLACK) ? 1 : (piece == PieceColor.WHITE ? 2 : 0);
-                hash = (hash + (v + 1L) * pow) % m;
-                pow = (pow * p) % m;
-            }
-        }
-        return hash;
-    }
-
     private boolean coversAny(Move m, Set<Cell> cells) {
         if (cells.isEmpty()) return false;
         if (cells.contains(new Cell(m.getRow1(), m.getCol1()))) return true;
@@ -1290,6 +1849,101 @@ public class AlphaBetaAI extends AIPlayer {
 
     // ===================== 辅助类定义 =====================
 
+    /**
+     * 融合评估的结果（均以 color 为“我方”）。
+     */
+    private static class Evaluation {
+        int myPatternScore;
+        int oppPatternScore;
+        int pathControl;
+        int myThreats;
+        int oppThreats;
+
+        int total() { return myPatternScore - oppPatternScore + pathControl; }
+    }
+
+    /**
+     * 协作式停止标志。自身或任一祖先被置位、或整次搜索的截止时间到达都视为已停止；
+     * YBW 中一个兄弟 fail-high 时只叫停同一节点下的其他兄弟。
+     */
+    private static final class StopFlag {
+        private final StopFlag parent;
+        private final SearchDeadline deadline;
+        private volatile boolean stopped;
+
+        StopFlag(SearchDeadline deadline) {
+            this.parent = null;
+            this.deadline = deadline;
+        }
+
+        StopFlag(StopFlag parent) {
+            this.parent = parent;
+            this.deadline = parent.deadline;
+        }
+
+        /**
+         * 每个搜索节点调用一次，顺带按间隔检查时钟
+         */
+        boolean poll() {
+            deadline.poll();
+            return isStopped();
+        }
+
+        boolean isStopped() {
+            if (deadline.isAborted()) return true;
+            for (StopFlag f = this; f != null; f = f.parent) {
+                if (f.stopped) return true;
+            }
+            return false;
+        }
+
+        void stop() {
+            stopped = true;
+        }
+    }
+
+    /**
+     * YBW 中的一个兄弟节点：先零窗口搜索，落在窗口内再全窗口重搜。
+     * 只有未被叫停时得到的分数才有效（valid）；fail-high 时叫停其余兄弟。
+     */
+    @SuppressWarnings("serial")  // 只在本进程的 ForkJoinPool 中执行，从不序列化
+    private final class SiblingTask extends RecursiveTask<Integer> {
+        final Board board;
+        final Move move;
+        final int depth, alpha, beta;
+        final PieceColor player;
+        final int threatDepth;
+        final int ply;
+        final StopFlag stop;
+        volatile boolean valid;
+
+        SiblingTask(Board board, Move move, int depth, int alpha, int beta, PieceColor player, int threatDepth, int ply,
+                    StopFlag stop) {
+            this.board = board;
+            this.move = move;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.player = player;
+            this.threatDepth = threatDepth;
+            this.ply = ply;
+            this.stop = stop;
+        }
+
+        @Override
+        protected Integer compute() {
+            int score = -pvs(board, depth, -alpha - 1, -alpha, player, threatDepth, ply, move, stop, false);
+            if (score > alpha && score < beta && !stop.isStopped()) {
+                score = -pvs(board, depth, -beta, -alpha, player, threatDepth, ply, move, stop, false);
+            }
+            if (!stop.isStopped()) {
+                valid = true;
+                if (score >= beta) stop.stop();
+            }
+            return score;
+        }
+    }
+
     private static class RootResult {
         final Move move;
         final int score;
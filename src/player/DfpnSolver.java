@@ -0,0 +1,293 @@
+package player;
+
+import core.board.Board;
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 深度优先证明数搜索（df-pn）求解器：证明或否证 attacker（轮到其走两子）在威胁空间内的必胜。
+ * <p>
+ * 走法与 {@link VcdtSolver} 相同：进攻方只走使威胁数达到 2 以上、并挡住对方全部现成威胁的双子，
+ * 防守方枚举所有能同时挡住全部威胁的双子，因此证明是严格的；
+ * 否证只说明威胁空间内没有必胜，并不代表局面必败。
+ * 与按深度穷举的 VcdtSolver 不同，df-pn 不设深度上限，按证明数与否证数优先展开最有希望的分支，
+ * 并用置换表合并不同次序到达的同一局面，适合威胁很多、分支很深的中后局。
+ * <p>
+ * 证明数表大小固定，按索引直接替换；条目跨求解保留，键中带有进攻方与节点类型。
+ * 一个实例不可多线程共用。
+ */
+public final class DfpnSolver {
+    public enum Result { PROVEN, DISPROVEN, UNKNOWN }
+
+    public static final int DEFAULT_TABLE_SIZE_MB = 8;
+
+    private static final int INF = 100_000_000;
+    private static final int MAX_ATTACK_CELLS = 24;
+    private static final long AND_NODE_SALT = 0x9E3779B97F4A7C15L;
+    private static final long WHITE_ATTACKER_SALT = 0xC2B2AE3D27D4EB4FL;
+
+    private final long[] keys;
+    private final long[] values;  // 高 32 位证明数，低 32 位否证数
+    private final int mask;
+
+    private PieceColor attacker;
+    private long salt;
+    private long nodeLimit;
+    private SearchDeadline deadline;
+    private long nodes;
+    private boolean stopped;
+    private Move bestMove;
+    private Result lastResult = Result.UNKNOWN;
+
+    public DfpnSolver() {
+        this(DEFAULT_TABLE_SIZE_MB);
+    }
+
+    /**
+     * @param tableSizeMb 证明数表大小（MB），在构造时一次性分配
+     */
+    public DfpnSolver(int tableSizeMb) {
+        if (tableSizeMb <= 0) {
+            throw new IllegalArgumentException("table size must be positive: " + tableSizeMb);
+        }
+        int entries = Integer.highestOneBit((int) Math.min(1 << 30, (long) tableSizeMb * 1024 * 1024 / 16));
+        keys = new long[entries];
+        values = new long[entries];
+        mask = entries - 1;
+    }
+
+    /**
+     * 离线求解一个局面。求解过程中临时在 board 上落子，返回前恢复原状。
+     * @param nodeLimit 最多展开的节点数
+     * @return 证明成功时返回第一步，否则返回 null，原因见 {@link #getLastResult()}
+     */
+    public Move solve(Board board, PieceColor attacker, long nodeLimit) {
+        return solve(board, attacker, nodeLimit, SearchDeadline.unlimited());
+    }
+
+    /**
+     * 同 {@link #solve(Board, PieceColor, long)}，到期时与节点数用尽一样按 UNKNOWN 返回
+     */
+    public Move solve(Board board, PieceColor attacker, long nodeLimit, SearchDeadline deadline) {
+        this.attacker = attacker;
+        this.salt = attacker == PieceColor.WHITE ? WHITE_ATTACKER_SALT : 0;
+        this.nodeLimit = nodeLimit;
+        this.deadline = deadline;
+        nodes = 0;
+        stopped = false;
+        bestMove = null;
+        if (board.winner() != null) {
+            lastResult = Result.DISPROVEN;
+            return null;
+        }
+
+        long root = mid(board, true, 0, INF, INF);
+        if (proofNumber(root) == 0) {
+            lastResult = Result.PROVEN;
+        } else if (disproofNumber(root) == 0) {
+            lastResult = Result.DISPROVEN;
+        } else {
+            lastResult = Result.UNKNOWN;
+        }
+        return lastResult == Result.PROVEN ? bestMove : null;
+    }
+
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, 0L);
+    }
+
+    /**
+     * 多重迭代加深：在阈值内反复展开证明数（或节点）最小的子节点，
+     * 直到本节点的证明数或否证数越过阈值。返回本节点的 (pn, dn)。
+     */
+    private long mid(Board b, boolean orNode, int ply, int thPn, int thDn) {
+        long key = b.hash() ^ salt ^ (orNode ? 0 : AND_NODE_SALT);
+        nodes++;
+
+        List<Move> moves = new ArrayList<>();
+        int[] win = new int[2];
+        long terminal = orNode ? expandAttack(b, moves, win) : expandDefence(b, moves);
+        if (terminal != 0) {
+            if (ply == 0 && proofNumber(terminal) == 0) {
+                bestMove = toMove(win[0], win[1]);
+            }
+            store(key, terminal);
+            return terminal;
+        }
+        int[] childPn = new int[moves.size()];
+        int[] childDn = new int[moves.size()];
+        int base = b.getMoveCount();
+        PieceColor mover = orNode ? attacker : attacker.opposite();
+        for (int i = 0; i < moves.size(); i++) {
+            b.apply(moves.get(i), mover);
+            long v = lookup(b.hash() ^ salt ^ (orNode ? AND_NODE_SALT : 0));
+            if (v == 0 && !orNode && b.winner() == mover) {
+                v = pack(INF, 0);  // 防守方反而连成六子
+            }
+            childPn[i] = v == 0 ? 1 : proofNumber(v);
+            childDn[i] = v == 0 ? 1 : disproofNumber(v);
+            b.rollback(base);
+        }
+
+        long result;
+        while (true) {
+            result = orNode ? orValue(childPn, childDn) : andValue(childPn, childDn);
+            int pn = proofNumber(result), dn = disproofNumber(result);
+            if (pn >= thPn || dn >= thDn || pn == 0 || dn == 0) break;
+            if (nodes >= nodeLimit || deadline.poll()) {
+                stopped = true;
+            }
+            if (stopped) break;
+
+            // OR 节点选证明数最小的子节点，AND 节点选否证数最小的
+            int[] primary = orNode ? childPn : childDn;
+            int best = 0, second = INF;
+            for (int i = 1; i < primary.length; i++) {
+                if (primary[i] < primary[best]) {
+                    second = primary[best];
+                    best = i;
+                } else if (primary[i] < second) {
+                    second = primary[i];
+                }
+            }
+            int childThPn, childThDn;
+            if (orNode) {
+                childThPn = Math.min(thPn, saturatedAdd(second, 1));
+                childThDn = saturatedAdd(thDn - dn, childDn[best]);
+            } else {
+                childThPn = saturatedAdd(thPn - pn, childPn[best]);
+                childThDn = Math.min(thDn, saturatedAdd(second, 1));
+            }
+            b.apply(moves.get(best), mover);
+            long v = mid(b, !orNode, ply + 1, childThPn, childThDn);
+            b.rollback(base);
+            childPn[best] = proofNumber(v);
+            childDn[best] = disproofNumber(v);
+        }
+        if (ply == 0 && proofNumber(result) == 0) {
+            for (int i = 0; i < childPn.length && bestMove == null; i++) {
+                if (childPn[i] == 0) bestMove = moves.get(i);
+            }
+        }
+        store(key, result);
+        return result;
+    }
+
+    /**
+     * 展开进攻节点。已分出胜负时返回 (pn, dn)，进攻方一步取胜时把这两子写入 win；
+     * 否则把走法写入 moves 并返回 0。
+     */
+    private long expandAttack(Board b, List<Move> moves, int[] win) {
+        PieceColor defender = attacker.opposite();
+        if (ThreatSpace.completeSix(b, attacker, win)) return pack(0, INF);
+        int[] defenderThreats = ThreatSpace.threatWindows(b, defender);
+        if (ThreatSpace.hittingNumber(b, defenderThreats) > 2) return pack(INF, 0);
+
+        int[] cells = ThreatSpace.attackCells(b, attacker, MAX_ATTACK_CELLS);
+        int[] threats = new int[2 * ThreatSpace.MAX_WINDOWS_PER_CELL];
+        int base = b.getMoveCount();
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = i + 1; j < cells.length; j++) {
+                int c1 = cells[i], c2 = cells[j];
+                b.makeMove(c1 / Board.SIZE, c1 % Board.SIZE, attacker);
+                b.makeMove(c2 / Board.SIZE, c2 % Board.SIZE, attacker);
+                if (ThreatSpace.blocksAll(b, defenderThreats, attacker)) {
+                    int n = ThreatSpace.newThreats(b, attacker, c1, c2, threats);
+                    int h = ThreatSpace.hittingNumber(b, Arrays.copyOf(threats, n));
+                    if (h >= 3) {
+                        // 对方两子挡不住，无需再展开
+                        b.rollback(base);
+                        win[0] = c1;
+                        win[1] = c2;
+                        return pack(0, INF);
+                    }
+                    if (h == 2) moves.add(toMove(c1, c2));
+                }
+                b.rollback(base);
+            }
+        }
+        return moves.isEmpty() ? pack(INF, 0) : 0;
+    }
+
+    /**
+     * 展开防守节点：只有能同时挡住进攻方全部威胁的双子才是合法应对
+     */
+    private long expandDefence(Board b, List<Move> moves) {
+        int[] threats = ThreatSpace.threatWindows(b, attacker);
+        int[] empties = ThreatSpace.emptyCells(b, threats);
+        for (int i = 0; i < empties.length; i++) {
+            for (int j = i + 1; j < empties.length; j++) {
+                if (ThreatSpace.hitsAll(threats, empties[i], empties[j])) {
+                    moves.add(toMove(empties[i], empties[j]));
+                }
+            }
+        }
+        return moves.isEmpty() ? pack(0, INF) : 0;
+    }
+
+    private static long orValue(int[] pn, int[] dn) {
+        int minPn = INF, sumDn = 0;
+        for (int i = 0; i < pn.length; i++) {
+            minPn = Math.min(minPn, pn[i]);
+            sumDn = saturatedAdd(sumDn, dn[i]);
+        }
+        return pack(minPn, sumDn);
+    }
+
+    private static long andValue(int[] pn, int[] dn) {
+        int sumPn = 0, minDn = INF;
+        for (int i = 0; i < pn.length; i++) {
+            sumPn = saturatedAdd(sumPn, pn[i]);
+            minDn = Math.min(minDn, dn[i]);
+        }
+        return pack(sumPn, minDn);
+    }
+
+    private long lookup(long key) {
+        int index = index(key);
+        return keys[index] == key ? values[index] : 0;
+    }
+
+    private void store(long key, long value) {
+        int index = index(key);
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    private int index(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    private static Move toMove(int c1, int c2) {
+        return new Move(c1 / Board.SIZE, c1 % Board.SIZE, c2 / Board.SIZE, c2 % Board.SIZE);
+    }
+
+    private static int saturatedAdd(int a, int b) {
+        return (int) Math.min(INF, (long) a + b);
+    }
+
+    private static long pack(int pn, int dn) {
+        return (long) pn << 32 | dn;
+    }
+
+    private static int proofNumber(long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static int disproofNumber(long value) {
+        return (int) value;
+    }
+}
@@ -13,23 +13,55 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
     private static final int MAX_DEPTH = 4;  // 增加搜索深度
     private static final int INF = 10000000;
     private static final int WIN_SCORE = 1000000;
+    private static final int VCDT_NODE_BUDGET = 20000;
+    private static final int VCDT_MAX_DEPTH = 5;
+    private static final int VCDT_TIME_DIVISOR = 4;  // 求解最多占用软时限的 1/4
     
     // 威胁等级定义
     private static final int THREAT_WIN = 100000;      // 必胜威胁（活四、双活三等）
     private static final int THREAT_URGENT = 50000;    // 紧急威胁（冲四、活三）
     private static final int THREAT_IMPORTANT = 10000; // 重要威胁（活二、眠三）
+    private static final int THREAT_ORDER_BONUS = 1 << 22;  // 紧急威胁点上的走法排在杀手与历史走法之前
+    private static final int FIRST_STONES = 8;    // 两段式生成中第一子的候选数
+    private static final int SECOND_STONES = 14;  // 第二子的候选数
+
+    // 路表评分：下标为一条未被对方阻断的路上己方棋子数
+    private static final int[] ROAD_SCORES = {
+            0, 50, 500, THREAT_IMPORTANT, THREAT_URGENT, THREAT_WIN, WIN_SCORE
+    };
     
-    private Map<Long, Integer> transpositionTable;  // 置换表（记忆化）
+    private final TranspositionTable transpositionTable;  // 置换表（记忆化）
+    private final TimeManager timeManager = new TimeManager();
+    private final VcdtSolver vcdtSolver = new VcdtSolver(VCDT_NODE_BUDGET);  // 连续双威胁求解
+    private final MoveHistory moveHistory = new MoveHistory();                // 内部节点的走法排序
     private int searchDepth;
 
     public EnhancedAlphaBetaAI(String name) {
+        this(name, TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * @param ttSizeMb 置换表大小（MB），在构造时一次性分配
+     */
+    public EnhancedAlphaBetaAI(String name, int ttSizeMb) {
         super(name);
-        this.transpositionTable = new HashMap<>();
+        this.transpositionTable = new TranspositionTable(ttSizeMb);
         this.searchDepth = MAX_DEPTH;
     }
 
     @Override
     public Move findMove(Move opponentMove) {
+        Ponder previous = ponder;
+        stopPondering();
+        Move move = decideMove(opponentMove, previous);
+        startPondering();
+        return move;
+    }
+
+    private Move decideMove(Move opponentMove, Ponder previous) {
+        timeManager.startMove(gameClock, color);
+        SearchDeadline deadline = timeManager.hardDeadline();
+
         // 1. 处理对手移动
         if (opponentMove != null) {
             PieceColor opponentColor = color.opposite();
@@ -46,52 +78,138 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
             return firstMove;
         }
 
+        // 搜索在私有副本上通过 make/unmake 进行，共享棋盘只在最终落子时修改
+        Board root = board.clone();
+
         // 3. 检查是否有必胜走法或必须防守
-        Move criticalMove = findCriticalMove();
+        Move criticalMove = findCriticalMove(root);
         if (criticalMove != null) {
             applyMoveToBoard(criticalMove);
             return criticalMove;
         }
 
-        // 4. 迭代深化搜索（从浅到深）
+        // 4. 迭代深化搜索（从浅到深），置换表在各深度与回合之间保留，只推进世代；
+        //    后台思考猜中对手应对时，沿用思考期间的置换表与最佳走法
         Move bestMove = null;
-        for (int depth = 2; depth <= searchDepth; depth++) {
-            transpositionTable.clear();  // 清空置换表
-            Move currentBest = iterativeDeepeningSearch(depth);
+        if (previous != null && previous.bestAnswer != null && opponentMove != null
+                && opponentMove.equals(previous.predictedReply)) {
+            bestMove = previous.bestAnswer;
+        } else {
+            transpositionTable.newSearch();
+        }
+        if (previous == null || previous.predictedReply == null) {
+            moveHistory.newTurn();  // 后台思考开始时已经衰减过
+        }
+        if (countThreats(root, color.opposite()) > 0) {
+            timeManager.threatsPresent();
+        }
+        for (int depth = 2; depth <= searchDepth && !deadline.expired() && !timeManager.softExpired(); depth++) {
+            Move currentBest = iterativeDeepeningSearch(root, depth, bestMove, deadline);
+            timeManager.onIteration(currentBest);
             if (currentBest != null) {
                 bestMove = currentBest;
             }
         }
 
         if (bestMove == null) {
-            bestMove = generateReasonableMove();
+            bestMove = generateReasonableMove(root);
         }
 
         applyMoveToBoard(bestMove);
         return bestMove;
     }
 
+    /**
+     * 后台思考：猜测对手的应对，并在对手思考期间针对它迭代加深搜索我方的下一步
+     */
+    private final class Ponder {
+        final SearchDeadline deadline = SearchDeadline.unlimited();
+        volatile Move predictedReply;
+        volatile Move bestAnswer;
+        Thread thread;
+    }
+
+    private volatile Ponder ponder;
+
+    private void startPondering() {
+        if (!pondering || board.winner() != null) {
+            return;
+        }
+        Board position = board.clone();
+        Ponder p = new Ponder();
+        p.thread = new Thread(() -> ponder(p, position), playerName + "-ponder");
+        p.thread.setDaemon(true);
+        ponder = p;
+        p.thread.start();
+    }
+
+    private void ponder(Ponder p, Board position) {
+        // 刚结束的搜索通常已把对手的最佳应对留在置换表里
+        long entry = transpositionTable.probe(position.hash());
+        Move predicted = entry != 0 ? TranspositionTable.bestMove(entry) : null;
+        if (predicted == null) {
+            List<ScoredMove> replies = generateScoredMovesForBoard(position, color.opposite());
+            if (replies.isEmpty()) {
+                return;
+            }
+            predicted = replies.get(0).move;
+        }
+        if (p.deadline.isAborted() || !position.apply(predicted, color.opposite()) || position.winner() != null) {
+            return;
+        }
+        p.predictedReply = predicted;
+        transpositionTable.newSearch();
+        moveHistory.newTurn();
+        Move best = null;
+        for (int depth = 2; depth <= searchDepth && !p.deadline.isAborted(); depth++) {
+            Move current = iterativeDeepeningSearch(position, depth, best, p.deadline);
+            if (current == null) {
+                break;
+            }
+            best = current;
+            p.bestAnswer = best;
+        }
+    }
+
+    @Override
+    public void stopPondering() {
+        Ponder p = ponder;
+        ponder = null;
+        if (p != null) {
+            p.deadline.abort();
+            try {
+                p.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * 迭代深化搜索
+     * @return 本深度的最佳走法；到达时限被中止时返回 null，由调用方沿用上一深度的结果
      */
-    private Move iterativeDeepeningSearch(int depth) {
-        List<ScoredMove> candidates = generateScoredMoves();
+    private Move iterativeDeepeningSearch(Board root, int depth, Move previousBest, SearchDeadline deadline) {
+        List<ScoredMove> candidates = generateScoredMovesForBoard(root, color);
         
         if (candidates.isEmpty()) {
-            return generateReasonableMove();
+            return generateReasonableMove(root);
         }
+        candidates = orderFirst(candidates, previousBest);  // 上一深度的最佳走法先搜
 
         Move bestMove = null;
         int bestScore = -INF;
 
         for (ScoredMove sm : candidates) {
-            Board tempBoard = board.clone();
-            tempBoard.makeMove(sm.move.getRow1(), sm.move.getCol1(), color);
-            if (!sm.move.isFirstMove()) {
-                tempBoard.makeMove(sm.move.getRow2(), sm.move.getCol2(), color);
+            if (!root.apply(sm.move, color)) {
+                continue;
             }
 
-            int score = -alphaBetaWithMemory(tempBoard, depth - 1, -INF, INF, color.opposite());
+            int score = -alphaBetaWithMemory(root, depth - 1, -INF, INF, color.opposite(), 1, sm.move, deadline);
+            root.undo(sm.move);
+            if (deadline.isAborted()) {
+                return null;
+            }
 
             if (score > bestScore) {
                 bestScore = score;
@@ -104,91 +222,156 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
 
     /**
      * 带记忆化的 Alpha-Beta 搜索
+     * @param ply          距根节点的层数
+     * @param previousMove 对方刚走的一手
      */
-    private int alphaBetaWithMemory(Board board, int depth, int alpha, int beta, PieceColor player) {
-        // 检查置换表
-        long boardHash = calculateBoardHash(board);
-        if (transpositionTable.containsKey(boardHash)) {
-            return transpositionTable.get(boardHash);
+    private int alphaBetaWithMemory(Board board, int depth, int alpha, int beta, PieceColor player, int ply,
+                                    Move previousMove, SearchDeadline deadline) {
+        if (deadline.poll()) {
+            return 0;
+        }
+
+        // 检查置换表：深度足够且边界可用时直接返回
+        long boardHash = board.hash();
+        long entry = transpositionTable.probe(boardHash);
+        if (entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int ttValue = TranspositionTable.score(entry);
+            int ttFlag = TranspositionTable.flag(entry);
+            if (ttFlag == TranspositionTable.EXACT
+                    || (ttFlag == TranspositionTable.LOWER_BOUND && ttValue >= beta)
+                    || (ttFlag == TranspositionTable.UPPER_BOUND && ttValue <= alpha)) {
+                return ttValue;
+            }
         }
+        int alphaOrig = alpha;
+        int betaOrig = beta;
 
         // 检查终止条件
-        PieceColor winner = checkWinner(board);
+        PieceColor winner = board.winner();
         if (winner != null) {
             int value = (winner == color) ? WIN_SCORE : -WIN_SCORE;
-            transpositionTable.put(boardHash, value);
+            transpositionTable.store(boardHash, value, depth, TranspositionTable.EXACT, null);
             return value;
         }
 
         if (depth == 0) {
             int value = evaluateBoard(board);
-            transpositionTable.put(boardHash, value);
+            transpositionTable.store(boardHash, value, 0, TranspositionTable.EXACT, null);
             return value;
         }
 
-        List<ScoredMove> moves = generateScoredMovesForBoard(board, player);
+        List<ScoredMove> moves = generateOrderedMoves(board, player, ply, previousMove);
         
         if (moves.isEmpty()) {
             return 0;
         }
+        if (entry != 0) {
+            moves = orderFirst(moves, TranspositionTable.bestMove(entry));
+        }
 
         int value;
+        Move bestMove = null;
         if (player == color) {
             value = -INF;
             for (ScoredMove sm : moves) {
-                Board tempBoard = board.clone();
-                tempBoard.makeMove(sm.move.getRow1(), sm.move.getCol1(), player);
-                if (!sm.move.isFirstMove()) {
-                    tempBoard.makeMove(sm.move.getRow2(), sm.move.getCol2(), player);
+                if (!board.apply(sm.move, player)) {
+                    continue;
                 }
 
-                value = Math.max(value, alphaBetaWithMemory(tempBoard, depth - 1, alpha, beta, player.opposite()));
+                int childValue = alphaBetaWithMemory(board, depth - 1, alpha, beta, player.opposite(), ply + 1, sm.move,
+                        deadline);
+                board.undo(sm.move);
+                if (deadline.isAborted()) {
+                    return 0;  // 不把中止时的不完整结果写入置换表
+                }
+                if (childValue > value) {
+                    value = childValue;
+                    bestMove = sm.move;
+                }
                 alpha = Math.max(alpha, value);
                 
                 if (beta <= alpha) {
+                    moveHistory.recordCutoff(sm.move, player, ply, previousMove, depth);
                     break;  // Beta剪枝
                 }
             }
         } else {
             value = INF;
             for (ScoredMove sm : moves) {
-                Board tempBoard = board.clone();
-                tempBoard.makeMove(sm.move.getRow1(), sm.move.getCol1(), player);
-                if (!sm.move.isFirstMove()) {
-                    tempBoard.makeMove(sm.move.getRow2(), sm.move.getCol2(), player);
+                if (!board.apply(sm.move, player)) {
+                    continue;
                 }
 
-                value = Math.min(value, alphaBetaWithMemory(tempBoard, depth - 1, alpha, beta, player.opposite()));
+                int childValue = alphaBetaWithMemory(board, depth - 1, alpha, beta, player.opposite(), ply + 1, sm.move,
+                        deadline);
+                board.undo(sm.move);
+                if (deadline.isAborted()) {
+                    return 0;  // 不把中止时的不完整结果写入置换表
+                }
+                if (childValue < value) {
+                    value = childValue;
+                    bestMove = sm.move;
+                }
                 beta = Math.min(beta, value);
                 
                 if (beta <= alpha) {
+                    moveHistory.recordCutoff(sm.move, player, ply, previousMove, depth);
                     break;  // Alpha剪枝
                 }
             }
         }
 
-        transpositionTable.put(boardHash, value);
+        // 按原始窗口判断边界类型，剪枝得到的值只是界而非精确值
+        int flag = TranspositionTable.EXACT;
+        if (value <= alphaOrig) {
+            flag = TranspositionTable.UPPER_BOUND;
+        } else if (value >= betaOrig) {
+            flag = TranspositionTable.LOWER_BOUND;
+        }
+        transpositionTable.store(boardHash, value, depth, flag, bestMove);
         return value;
     }
 
+    /**
+     * 把指定走法提到列表最前；不在列表中时直接插入
+     */
+    private List<ScoredMove> orderFirst(List<ScoredMove> moves, Move first) {
+        if (first == null) return moves;
+        List<ScoredMove> ordered = new ArrayList<>(moves.size() + 1);
+        ordered.add(new ScoredMove(first, INF));
+        for (ScoredMove sm : moves) {
+            if (!sm.move.equals(first)) {
+                ordered.add(sm);
+            }
+        }
+        return ordered;
+    }
+
     /**
      * 寻找关键走法（必胜或必防）
      */
-    private Move findCriticalMove() {
+    private Move findCriticalMove(Board board) {
         // 1. 检查是否有必胜走法（我方可以形成六连）
-        Move winningMove = findWinningMove(color);
+        Move winningMove = findWinningMove(board, color);
         if (winningMove != null) {
             return winningMove;
         }
 
-        // 2. 检查是否需要防守（对方威胁）
-        Move blockingMove = findWinningMove(color.opposite());
+        // 2. 连续双威胁必胜（同时挡住对方现成的六连机会）
+        Move vcdtMove = vcdtSolver.solve(board, color, VCDT_MAX_DEPTH,
+                SearchDeadline.after(timeManager.getSoftLimitMs() / VCDT_TIME_DIVISOR));
+        if (vcdtMove != null) {
+            return vcdtMove;
+        }
+
+        // 3. 检查是否需要防守（对方威胁）
+        Move blockingMove = findWinningMove(board, color.opposite());
         if (blockingMove != null) {
             return blockingMove;
         }
 
-        // 3. 检查双威胁走法
-        Move doubleThreatMove = findDoubleThreatMove();
+        // 4. 检查双威胁走法
+        Move doubleThreatMove = findDoubleThreatMove(board);
         if (doubleThreatMove != null) {
             return doubleThreatMove;
         }
@@ -199,8 +382,8 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
     /**
      * 寻找能直接获胜的走法
      */
-    private Move findWinningMove(PieceColor playerColor) {
-        List<int[]> emptyPositions = getAllEmptyPositions();
+    private Move findWinningMove(Board board, PieceColor playerColor) {
+        List<int[]> emptyPositions = getAllEmptyPositions(board);
         
         // 尝试每个空位的组合
         for (int i = 0; i < Math.min(emptyPositions.size(), 20); i++) {
@@ -208,16 +391,14 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
                 int[] pos1 = emptyPositions.get(i);
                 int[] pos2 = emptyPositions.get(j);
                 
-                Board testBoard = board.clone();
-                testBoard.makeMove(pos1[0], pos1[1], playerColor);
-                
-                if (testBoard.checkWin(pos1[0], pos1[1], playerColor)) {
-                    return new Move(pos1[0], pos1[1], pos2[0], pos2[1]);
-                }
-                
-                testBoard.makeMove(pos2[0], pos2[1], playerColor);
+                board.makeMove(pos1[0], pos1[1], playerColor);
+                board.makeMove(pos2[0], pos2[1], playerColor);
+                boolean wins = board.checkWin(pos1[0], pos1[1], playerColor)
+                        || board.checkWin(pos2[0], pos2[1], playerColor);
+                board.unmakeMove(pos2[0], pos2[1]);
+                board.unmakeMove(pos1[0], pos1[1]);
                 
-                if (testBoard.checkWin(pos2[0], pos2[1], playerColor)) {
+                if (wins) {
                     return new Move(pos1[0], pos1[1], pos2[0], pos2[1]);
                 }
             }
@@ -229,19 +410,14 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
     /**
      * 寻找双威胁走法（形成两个活四等）
      */
-    private Move findDoubleThreatMove() {
-        List<ScoredMove> moves = generateScoredMoves();
+    private Move findDoubleThreatMove(Board board) {
+        List<ScoredMove> moves = generateScoredMovesForBoard(board, color);
         
         for (ScoredMove sm : moves) {
-            if (sm.score >= THREAT_URGENT) {
-                Board testBoard = board.clone();
-                testBoard.makeMove(sm.move.getRow1(), sm.move.getCol1(), color);
-                if (!sm.move.isFirstMove()) {
-                    testBoard.makeMove(sm.move.getRow2(), sm.move.getCol2(), color);
-                }
-                
+            if (sm.score >= THREAT_URGENT && board.apply(sm.move, color)) {
                 // 检查是否形成多个威胁
-                int threatCount = countThreats(testBoard, color);
+                int threatCount = countThreats(board, color);
+                board.undo(sm.move);
                 if (threatCount >= 2) {
                     return sm.move;
                 }
@@ -252,75 +428,81 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
     }
 
     /**
-     * 生成带评分的候选走法
+     * 两段式候选生成：先逐个试下单子（路表评估是 O(1) 的），只在得分最高的几个点之间组成双子，
+     * 每对只生成一次。得分按 player 的视角（对手走时取反）。
      */
-    private List<ScoredMove> generateScoredMoves() {
-        return generateScoredMovesForBoard(board, color);
-    }
-
     private List<ScoredMove> generateScoredMovesForBoard(Board board, PieceColor player) {
-        List<ScoredMove> scoredMoves = new ArrayList<>();
-        List<int[]> candidates = new ArrayList<>();
+        // 收集候选位置（两格内有棋子的空位），直接读取棋盘维护的候选前沿
+        int[] candidates = new int[Board.SIZE * Board.SIZE];
+        int count = board.frontier(2, candidates);
+        if (count < 2) {
+            return new ArrayList<>();
+        }
 
-        // 收集候选位置（有邻居的空位）
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                if (board.get(i, j) == PieceColor.EMPTY && hasStrategicValue(board, i, j)) {
-                    candidates.add(new int[]{i, j});
-                }
-            }
+        // 1. 单子得分
+        int sign = player == color ? 1 : -1;
+        int[] gain = new int[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            int row = candidates[i] / Board.SIZE, col = candidates[i] % Board.SIZE;
+            board.makeMove(row, col, player);
+            gain[i] = sign * evaluateBoard(board);
+            board.unmakeMove(row, col);
+            order[i] = i;
         }
+        Arrays.sort(order, (a, b) -> Integer.compare(gain[b], gain[a]));
 
-        // 限制候选数量
-        int limit = Math.min(candidates.size(), 25);
-        
-        // 生成双子组合并评分
-        for (int i = 0; i < limit; i++) {
-            for (int j = i + 1; j < limit; j++) {
-                int[] pos1 = candidates.get(i);
-                int[] pos2 = candidates.get(j);
-                Move move = new Move(pos1[0], pos1[1], pos2[0], pos2[1]);
-                
-                int score = quickEvaluateMove(board, move, player);
-                scoredMoves.add(new ScoredMove(move, score));
+        // 2. 第一子取前 FIRST_STONES 个，第二子只取排在它之后、前 SECOND_STONES 个以内的点
+        List<ScoredMove> scoredMoves = new ArrayList<>();
+        int first = Math.min(FIRST_STONES, count), second = Math.min(SECOND_STONES, count);
+        for (int i = 0; i < first; i++) {
+            int pos1 = candidates[order[i]];
+            board.makeMove(pos1 / Board.SIZE, pos1 % Board.SIZE, player);
+            for (int j = i + 1; j < second; j++) {
+                int pos2 = candidates[order[j]];
+                board.makeMove(pos2 / Board.SIZE, pos2 % Board.SIZE, player);
+                int score = sign * evaluateBoard(board);
+                board.unmakeMove(pos2 / Board.SIZE, pos2 % Board.SIZE);
+                scoredMoves.add(new ScoredMove(new Move(pos1 / Board.SIZE, pos1 % Board.SIZE,
+                        pos2 / Board.SIZE, pos2 % Board.SIZE), score));
             }
+            board.unmakeMove(pos1 / Board.SIZE, pos1 % Board.SIZE);
         }
 
-        // 按分数降序排序
+        // 按分数降序排序，只保留前15个最佳候选
         scoredMoves.sort((a, b) -> Integer.compare(b.score, a.score));
-        
-        // 只保留前15个最佳候选
         return scoredMoves.subList(0, Math.min(15, scoredMoves.size()));
     }
 
     /**
-     * 判断位置是否有战略价值
+     * 内部节点的候选生成：候选点同上，双子按杀手/反制走法、历史分与两子所在路的得分排序，
+     * 不再逐个落子评估整盘
      */
-    private boolean hasStrategicValue(Board board, int row, int col) {
-        // 检查周围是否有棋子
-        for (int dr = -2; dr <= 2; dr++) {
-            for (int dc = -2; dc <= 2; dc++) {
-                int r = row + dr;
-                int c = col + dc;
-                if (board.isValid(r, c) && board.get(r, c) != PieceColor.EMPTY) {
-                    return true;
-                }
-            }
+    private List<ScoredMove> generateOrderedMoves(Board board, PieceColor player, int ply, Move previousMove) {
+        int[] candidates = new int[Board.SIZE * Board.SIZE];
+        int count = Math.min(board.frontier(2, candidates), 25);
+        int[] cellScore = new int[count];
+        for (int i = 0; i < count; i++) {
+            int row = candidates[i] / Board.SIZE, col = candidates[i] % Board.SIZE;
+            cellScore[i] = evaluateRoadsFromPosition(board, row, col, player)
+                    + evaluateRoadsFromPosition(board, row, col, player.opposite());
         }
-        return false;
-    }
 
-    /**
-     * 快速评估走法（不深度搜索）
-     */
-    private int quickEvaluateMove(Board board, Move move, PieceColor player) {
-        Board testBoard = board.clone();
-        testBoard.makeMove(move.getRow1(), move.getCol1(), player);
-        if (!move.isFirstMove()) {
-            testBoard.makeMove(move.getRow2(), move.getCol2(), player);
+        List<ScoredMove> scoredMoves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                int pos1 = candidates[i];
+                int pos2 = candidates[j];
+                Move move = new Move(pos1 / Board.SIZE, pos1 % Board.SIZE, pos2 / Board.SIZE, pos2 % Board.SIZE);
+                int score = moveHistory.score(move, player, ply, previousMove) + cellScore[i] + cellScore[j];
+                if (cellScore[i] >= THREAT_URGENT || cellScore[j] >= THREAT_URGENT) {
+                    score += THREAT_ORDER_BONUS;
+                }
+                scoredMoves.add(new ScoredMove(move, score));
+            }
         }
-        
-        return evaluateBoard(testBoard);
+        scoredMoves.sort((a, b) -> Integer.compare(b.score, a.score));
+        return scoredMoves.subList(0, Math.min(15, scoredMoves.size()));
     }
 
     /**
@@ -335,11 +517,9 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
     private int evaluatePlayer(Board board, PieceColor player) {
         int score = 0;
         
-        // 评估所有可能的六连线（路表）
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                score += evaluateRoadsFromPosition(board, i, j, player);
-            }
+        // 路表由棋盘增量维护，只需读取“只含己方棋子的路”按子数的分布
+        for (int k = 1; k <= Board.WINDOW_LENGTH; k++) {
+            score += board.openWindows(player, k) * ROAD_SCORES[k];
         }
         
         return score;
@@ -350,10 +530,12 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
      */
     private int evaluateRoadsFromPosition(Board board, int row, int col, PieceColor player) {
         int score = 0;
-        int[][] directions = {{0,1}, {1,0}, {1,1}, {1,-1}};
         
-        for (int[] dir : directions) {
-            score += evaluateRoad(board, row, col, dir[0], dir[1], player);
+        for (int dir = 0; dir < 4; dir++) {
+            int window = Board.windowAt(row, col, dir);
+            if (window >= 0) {
+                score += evaluateRoad(board, window, player);
+            }
         }
         
         return score;
@@ -362,39 +544,11 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
     /**
      * 评估单条路线（六连线）
      */
-    private int evaluateRoad(Board board, int row, int col, int dr, int dc, PieceColor player) {
-        int myCount = 0, oppCount = 0, empty = 0;
-        
-        for (int i = 0; i < 6; i++) {
-            int r = row + i * dr;
-            int c = col + i * dc;
-            
-            if (!board.isValid(r, c)) return 0;
-            
-            PieceColor piece = board.get(r, c);
-            if (piece == player) {
-                myCount++;
-            } else if (piece == player.opposite()) {
-                oppCount++;
-            } else {
-                empty++;
-            }
-        }
-        
+    private int evaluateRoad(Board board, int window, PieceColor player) {
         // 如果被对方阻断，不计分
-        if (myCount > 0 && oppCount > 0) return 0;
+        if (board.windowStones(window, player.opposite()) > 0) return 0;
         
-        // 根据棋型评分
-        if (myCount == 6) return WIN_SCORE;
-        if (myCount == 5 && empty == 1) return THREAT_WIN;      // 活五
-        if (myCount == 4 && empty == 2) return THREAT_URGENT;   // 活四
-        if (myCount == 4 && empty == 1) return THREAT_URGENT / 2; // 冲四
-        if (myCount == 3 && empty == 3) return THREAT_IMPORTANT; // 活三
-        if (myCount == 3 && empty == 2) return THREAT_IMPORTANT / 2; // 眠三
-        if (myCount == 2 && empty == 4) return 500;              // 活二
-        if (myCount == 1 && empty == 5) return 50;               // 单子
-        
-        return myCount * 10;
+        return ROAD_SCORES[board.windowStones(window, player)];
     }
 
     /**
@@ -415,36 +569,7 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
         return threats;
     }
 
-    /**
-     * 计算棋盘哈希值（用于置换表）
-     */
-    private long calculateBoardHash(Board board) {
-        long hash = 0;
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                PieceColor piece = board.get(i, j);
-                if (piece != PieceColor.EMPTY) {
-                    hash = hash * 3 + (piece == PieceColor.BLACK ? 1 : 2);
-                    hash += i * 19 + j;
-                }
-            }
-        }
-        return hash;
-    }
-
-    private PieceColor checkWinner(Board board) {
-        for (int i = 0; i < Board.SIZE; i++) {
-            for (int j = 0; j < Board.SIZE; j++) {
-                PieceColor color = board.get(i, j);
-                if (color != PieceColor.EMPTY && board.checkWin(i, j, color)) {
-                    return color;
-                }
-            }
-        }
-        return null;
-    }
-
-    private List<int[]> getAllEmptyPositions() {
+    private List<int[]> getAllEmptyPositions(Board board) {
         List<int[]> positions = new ArrayList<>();
         for (int i = 0; i < Board.SIZE; i++) {
             for (int j = 0; j < Board.SIZE; j++) {
@@ -456,8 +581,8 @@ public class EnhancedAlphaBetaAI extends AIPlayer {
         return positions;
     }
 
-    private Move generateReasonableMove() {
-        List<int[]> empty = getAllEmptyPositions();
+    private Move generateReasonableMove(Board board) {
+        List<int[]> empty = getAllEmptyPositions(board);
         if (empty.size() >= 2) {
             return new Move(empty.get(0)[0], empty.get(0)[1], 
                           empty.get(1)[0], empty.get(1)[1]);
@@ -0,0 +1,404 @@
+package player;
+
+import core.board.Board;
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MCTS 的扁平节点池：节点是下标，各字段存放在并行的基本类型数组里（struct-of-arrays），
+ * 同一节点的子节点在池中连续存放，由首个子节点下标与子节点数描述。
+ * 池在构造时一次性分配，每回合通过 {@link #reset} 或 {@link #reroot} 回收，搜索中不再分配对象。
+ * <p>
+ * 多个线程可以并发地选择、扩展与回传：访问、胜场与虚拟损失用 VarHandle 原子增减；
+ * 节点只由 {@link #tryBeginExpand} 成功的线程扩展一次，子节点写完后以 release 语义随 info 一起发布。
+ * reset 与 reroot 只能在没有搜索线程运行时调用。
+ * <p>
+ * 节点可以被证明（MCTS-Solver）：有一个子节点是走棋方的必胜，本节点即为走棋方必胜；
+ * 子节点覆盖了全部不立即输棋的走法（exhaustive）且都是对方必胜时，本节点为对方必胜。
+ * 候选走法通常是截断的，只有扩展时标为 exhaustive 的节点才会被证明为负。已证明的子节点不再参与选择。
+ * <p>
+ * 选择用 PUCT：每个子节点带一个由静态评估得到的先验概率，未访问的子节点按先验排序而不是一律优先。
+ * 子节点按先验降序存放，并渐进展宽（progressive widening）：节点模拟了 N 次时只有前
+ * {@code WIDEN_BASE + WIDEN_SCALE * sqrt(N)} 个未证明的子节点参与选择，后面的在访问次数增长后才逐个放开。
+ */
+final class MctsTree {
+    static final int NONE = -1;
+    static final int ROOT = 0;
+
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+    private static final int VIRTUAL_LOSS = 2;  // 与一次模拟计入的访问数相同，即按输掉一局计
+    private static final int MAX_DEPTH_C = 64;
+    private static final int WIDEN_BASE = 3;
+    private static final double WIDEN_SCALE = 0.5;  // 约 1200 次模拟后 20 个候选全部放开
+
+    // info 字段：低 8 位子节点数，其余为标志位
+    private static final int COUNT_MASK = 0xFF;
+    private static final int WHITE_TO_MOVE = 1 << 8;
+    private static final int EXPANDING = 1 << 9;
+    private static final int TERMINAL = 1 << 10;
+    private static final int WINNER_SHIFT = 11;  // 2 位：0 无，1 黑，2 白；PROVEN 置位时有效
+    private static final int PROVEN = 1 << 13;
+    private static final int EXHAUSTIVE = 1 << 14;
+
+    static final int MAX_CHILDREN = COUNT_MASK;
+
+    private static final VarHandle INT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int capacity;
+    private final int[] visits;
+    private final int[] wins;       // 走到本节点的一方（父节点一方）的胜场，和棋记半场
+    private final int[] virtualLoss;
+    private final int[] firstChild;
+    private final int[] info;
+    private final int[] moves;      // 父节点一方走到本节点的双子，编码见 encode
+    private final float[] priors;    // 扩展时给出的先验概率，同一父节点下之和为 1
+    private final double[] explorationByDepth;
+    private final int[] remap;      // reroot 时旧下标到新下标的映射
+    private final int[] blocks;     // reroot 时收集的子节点块：首下标 << 8 | 子节点数
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * @param capacity         最多容纳的节点数（不超过 2^23）；池满后不再扩展，搜索退化为从叶子直接模拟
+     * @param explorationBase  根节点处 PUCT 的探索系数
+     * @param explorationDecay 探索系数随深度按 exp(-decay * depth) 衰减
+     */
+    MctsTree(int capacity, double explorationBase, double explorationDecay) {
+        if (capacity <= 0 || capacity > 1 << 23) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        this.capacity = capacity;
+        visits = new int[capacity];
+        wins = new int[capacity];
+        virtualLoss = new int[capacity];
+        firstChild = new int[capacity];
+        info = new int[capacity];
+        moves = new int[capacity];
+        priors = new float[capacity];
+        remap = new int[capacity];
+        blocks = new int[capacity];
+        explorationByDepth = new double[MAX_DEPTH_C];
+        for (int depth = 0; depth < MAX_DEPTH_C; depth++) {
+            explorationByDepth[depth] = explorationBase * Math.exp(-explorationDecay * depth);
+        }
+    }
+
+    /**
+     * 清空整棵树，只留下一个轮到 player 走棋的根节点
+     */
+    void reset(PieceColor player) {
+        init(ROOT, 0, player);
+        size.set(1);
+    }
+
+    /**
+     * 把 node 为根的子树原地压缩到池的开头，node 成为新的 {@link #ROOT}，其余节点全部回收。
+     * 子节点块总是在父节点之后分配，按旧下标升序搬移时目标位置不会超过源位置，不会覆盖尚未搬移的节点。
+     */
+    void reroot(int node) {
+        if (node == ROOT) return;
+        int blockCount = 0;
+        int[] stack = remap;  // 先借用 remap 作 DFS 栈，收集完子节点块再写映射
+        int top = 0;
+        stack[top++] = node;
+        while (top > 0) {
+            int n = stack[--top];
+            int count = childCount(n);
+            if (count == 0) continue;
+            int first = firstChild[n];
+            blocks[blockCount++] = first << 8 | count;
+            for (int i = 0; i < count; i++) stack[top++] = first + i;
+        }
+        Arrays.sort(blocks, 0, blockCount);
+
+        remap[node] = ROOT;
+        int next = 1;
+        for (int k = 0; k < blockCount; k++) {
+            int first = blocks[k] >>> 8, count = blocks[k] & COUNT_MASK;
+            for (int i = 0; i < count; i++) remap[first + i] = next + i;
+            next += count;
+        }
+        copy(node, ROOT);
+        for (int k = 0; k < blockCount; k++) {
+            int first = blocks[k] >>> 8, count = blocks[k] & COUNT_MASK;
+            for (int i = 0; i < count; i++) copy(first + i, remap[first + i]);
+        }
+        for (int n = 0; n < next; n++) {
+            if (childCount(n) > 0) firstChild[n] = remap[firstChild[n]];
+        }
+        size.set(next);
+    }
+
+    int size() {
+        return Math.min(size.get(), capacity);
+    }
+
+    int visits(int node) {
+        return (int) INT.getOpaque(visits, node);
+    }
+
+    int wins(int node) {
+        return (int) INT.getOpaque(wins, node);
+    }
+
+    int virtualLoss(int node) {
+        return (int) INT.getOpaque(virtualLoss, node);
+    }
+
+    PieceColor player(int node) {
+        return (info[node] & WHITE_TO_MOVE) != 0 ? PieceColor.WHITE : PieceColor.BLACK;
+    }
+
+    int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    int childCount(int node) {
+        return (int) INT.getAcquire(info, node) & COUNT_MASK;
+    }
+
+    boolean isTerminal(int node) {
+        return ((int) INT.getAcquire(info, node) & TERMINAL) != 0;
+    }
+
+    boolean isProven(int node) {
+        return ((int) INT.getAcquire(info, node) & PROVEN) != 0;
+    }
+
+    boolean isExhaustive(int node) {
+        return ((int) INT.getAcquire(info, node) & EXHAUSTIVE) != 0;
+    }
+
+    /**
+     * 已证明节点的胜方（终局节点即实际胜方）；未证明或和棋时为 null
+     */
+    PieceColor winner(int node) {
+        int v = (int) INT.getAcquire(info, node);
+        if ((v & PROVEN) == 0) return null;
+        return ((v >>> WINNER_SHIFT) & 3) == 1 ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+
+    Move move(int node) {
+        return decode(moves[node]);
+    }
+
+    /**
+     * 在 b 上落下走到 node 的双子（由父节点一方落子）
+     */
+    void play(int node, Board b) {
+        int code = moves[node];
+        int c1 = code / CELLS, c2 = code % CELLS;
+        PieceColor mover = player(node).opposite();
+        b.makeMove(c1 / Board.SIZE, c1 % Board.SIZE, mover);
+        if (c2 != c1) b.makeMove(c2 / Board.SIZE, c2 % Board.SIZE, mover);
+    }
+
+    /**
+     * 抢占扩展权：每个节点只有一个线程能成功。池已满时直接返回 false，免得生成候选后才发现无处存放
+     */
+    boolean tryBeginExpand(int node) {
+        if (size.get() >= capacity) return false;
+        while (true) {
+            int v = (int) INT.getVolatile(info, node);
+            if ((v & (EXPANDING | TERMINAL | PROVEN)) != 0) return false;
+            if (INT.compareAndSet(info, node, v, v | EXPANDING)) return true;
+        }
+    }
+
+    /**
+     * 放弃扩展权（如节点池已满），清掉 {@link #tryBeginExpand} 置上的标志，之后（例如 reroot 腾出空间后）仍可再扩展
+     */
+    void abortExpand(int node) {
+        while (true) {
+            int v = (int) INT.getVolatile(info, node);
+            if (INT.compareAndSet(info, node, v, v & ~EXPANDING)) return;
+        }
+    }
+
+    /**
+     * 为 count 个子节点预留连续空间，池满时返回 {@link #NONE}
+     */
+    int allocate(int count) {
+        int first = size.getAndAdd(count);
+        return first + count <= capacity ? first : NONE;
+    }
+
+    /**
+     * 初始化一个预留的子节点，在 {@link #publish} 之前调用
+     * @param winner 走完这一手即分出胜负时的胜方，否则为 null
+     * @param prior  先验概率；子节点须按先验降序初始化，渐进展宽按这个顺序放开
+     */
+    void initChild(int child, Move move, PieceColor player, PieceColor winner, float prior) {
+        init(child, encode(move), player);
+        priors[child] = prior;
+        if (winner != null) info[child] |= TERMINAL | PROVEN | winnerBits(winner);
+    }
+
+    /**
+     * 由扩展线程发布子节点，之后其他线程才能看到
+     * @param exhaustive 子节点包含了全部不会立即输棋的走法，可据此证明本节点为负
+     */
+    void publish(int node, int first, int count, boolean exhaustive) {
+        firstChild[node] = first;
+        setBits(node, count | (exhaustive ? EXHAUSTIVE : 0));
+    }
+
+    /**
+     * 由扩展线程把 node 标记为终局
+     * @param winner 胜方；无子可下的和棋为 null
+     */
+    void markTerminal(int node, PieceColor winner) {
+        setBits(node, TERMINAL | (winner == null ? 0 : PROVEN | winnerBits(winner)));
+    }
+
+    /**
+     * 把 node 标记为 winner 必胜
+     * @return 本次调用是否改变了节点（已被证明时返回 false）
+     */
+    boolean markProven(int node, PieceColor winner) {
+        while (true) {
+            int v = (int) INT.getVolatile(info, node);
+            if ((v & PROVEN) != 0) return false;
+            if (INT.compareAndSet(info, node, v, v | PROVEN | winnerBits(winner))) return true;
+        }
+    }
+
+    /**
+     * 沿选择路径自下而上传播证明：path[length - 1] 刚被证明（或刚展开出已证明的子节点）时调用，
+     * 逐层检查父节点能否随之得证，第一次不能时停止
+     */
+    void propagateProof(int[] path, int length) {
+        for (int i = length - 1; i > 0; i--) {
+            int child = path[i], parent = path[i - 1];
+            PieceColor childWinner = winner(child);
+            if (childWinner == null) return;
+            PieceColor mover = player(parent);
+            if (childWinner == mover) {
+                markProven(parent, mover);
+            } else if (isExhaustive(parent) && allChildrenWonBy(parent, childWinner)) {
+                markProven(parent, childWinner);
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean allChildrenWonBy(int node, PieceColor winner) {
+        int first = firstChild[node];
+        int count = childCount(node);
+        for (int child = first; child < first + count; child++) {
+            if (winner(child) != winner) return false;
+        }
+        return count > 0;
+    }
+
+    // info 除子节点数外也会被证明并发修改，一律用 CAS 置位
+    private void setBits(int node, int bits) {
+        while (true) {
+            int v = (int) INT.getVolatile(info, node);
+            if (INT.compareAndSet(info, node, v, v | bits)) return;
+        }
+    }
+
+    void addVirtualLoss(int node) {
+        INT.getAndAdd(virtualLoss, node, VIRTUAL_LOSS);
+    }
+
+    /**
+     * 记入一次模拟结果并撤销选择时加上的虚拟损失
+     */
+    void update(int node, PieceColor loser) {
+        if (loser == null) {
+            INT.getAndAdd(wins, node, 1);
+        } else if (loser == player(node)) {
+            INT.getAndAdd(wins, node, 2);
+        }
+        INT.getAndAdd(visits, node, 2);
+        INT.getAndAdd(virtualLoss, node, -VIRTUAL_LOSS);
+    }
+
+    /**
+     * 按 PUCT 在已放开的子节点中选择，进行中的模拟先按输棋计入；
+     * 未访问的子节点以本节点当前的胜率（走棋方视角）作为估值，由先验决定先后。
+     * 已证明的子节点不再选择，也不占展宽名额；exhaustive 节点不做展宽。全部已证明时返回 {@link #NONE}
+     */
+    int selectChild(int node, int depth) {
+        int first = firstChild[node];
+        int count = childCount(node);
+        double c = explorationByDepth[Math.min(depth, MAX_DEPTH_C - 1)];
+        double parentPlayouts = visits(node) / 2.0;
+        double sqrtParent = Math.sqrt(Math.max(1, parentPlayouts));
+        int open = isExhaustive(node) ? count : WIDEN_BASE + (int) (WIDEN_SCALE * Math.sqrt(parentPlayouts));
+        double unvisitedValue = parentPlayouts > 0 ? 1 - wins(node) / (2 * parentPlayouts) : 0.5;
+        int best = NONE;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + count && open > 0; child++) {
+            if (isProven(child)) continue;
+            open--;
+            int n = visits(child) + virtualLoss(child);
+            double value = n == 0 ? unvisitedValue : (double) wins(child) / n;
+            double score = value + c * priors[child] * sqrtParent / (1 + n / 2.0);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 在 node 的子节点中找到走法 move 对应的一个，没有时返回 {@link #NONE}
+     */
+    int findChild(int node, Move move) {
+        int code = encode(move);
+        int first = firstChild[node];
+        int count = childCount(node);
+        for (int child = first; child < first + count; child++) {
+            if (moves[child] == code) return child;
+        }
+        return NONE;
+    }
+
+    private void init(int node, int move, PieceColor player) {
+        visits[node] = 0;
+        wins[node] = 0;
+        virtualLoss[node] = 0;
+        firstChild[node] = 0;
+        priors[node] = 1;
+        moves[node] = move;
+        info[node] = player == PieceColor.WHITE ? WHITE_TO_MOVE : 0;
+    }
+
+    private void copy(int from, int to) {
+        visits[to] = visits[from];
+        wins[to] = wins[from];
+        virtualLoss[to] = 0;
+        firstChild[to] = firstChild[from];
+        priors[to] = priors[from];
+        moves[to] = moves[from];
+        info[to] = info[from];
+    }
+
+    private static int winnerBits(PieceColor winner) {
+        return (winner == PieceColor.BLACK ? 1 : 2) << WINNER_SHIFT;
+    }
+
+    /**
+     * 双子编码为 min * CELLS + max，与两子的先后无关；单子（黑方第一手）记为两格相同
+     */
+    private static int encode(Move m) {
+        int c1 = m.getRow1() * Board.SIZE + m.getCol1();
+        int c2 = m.isFirstMove() ? c1 : m.getRow2() * Board.SIZE + m.getCol2();
+        return Math.min(c1, c2) * CELLS + Math.max(c1, c2);
+    }
+
+    private static Move decode(int code) {
+        int c1 = code / CELLS, c2 = code % CELLS;
+        if (c1 == c2) return new Move(c1 / Board.SIZE, c1 % Board.SIZE);
+        return new Move(c1 / Board.SIZE, c1 % Board.SIZE, c2 / Board.SIZE, c2 % Board.SIZE);
+    }
+}
@@ -0,0 +1,64 @@
+package player;
+
+import core.board.PieceColor;
+import core.game.Move;
+
+/**
+ * {@link MctsTree} 扩展权的回归校验：节点池满时放弃扩展的节点，在 reroot 腾出空间后必须能再次扩展。
+ * 有失败项时以退出码 1 结束。
+ * <p>
+ * 节点池是包内类，校验放在同一个包里。用法：java player.MctsTreeCheck
+ */
+final class MctsTreeCheck {
+    private static final int CAPACITY = 8;
+
+    private MctsTreeCheck() {
+    }
+
+    public static void main(String[] args) {
+        MctsTree tree = new MctsTree(CAPACITY, 1.0, 0.0);
+        tree.reset(PieceColor.BLACK);
+        int failures = 0;
+
+        // 根展开 3 个子节点，池里还剩 4 个空位
+        failures += check(tree.tryBeginExpand(MctsTree.ROOT), "根节点取得扩展权");
+        int first = tree.allocate(3);
+        for (int i = 0; i < 3; i++) {
+            tree.initChild(first + i, new Move(i, 0, i, 1), PieceColor.WHITE, null, 1.0f / 3);
+        }
+        tree.publish(MctsTree.ROOT, first, 3, false);
+
+        // 子节点要 5 个空位，池满，放弃扩展
+        int child = first + 1;
+        failures += check(tree.tryBeginExpand(child), "子节点取得扩展权");
+        failures += check(tree.allocate(5) == MctsTree.NONE, "池满时分配失败");
+        tree.abortExpand(child);
+        failures += check(!tree.tryBeginExpand(child), "池满时不再抢扩展权");
+
+        // 以该子节点为新根压缩后空间足够，必须能重新扩展
+        tree.reroot(child);
+        failures += check(tree.size() == 1, "reroot 后只剩新根");
+        failures += check(tree.tryBeginExpand(MctsTree.ROOT), "reroot 后新根可以再次扩展");
+        int again = tree.allocate(5);
+        failures += check(again != MctsTree.NONE, "reroot 后分配成功");
+        if (again != MctsTree.NONE) {
+            for (int i = 0; i < 5; i++) {
+                tree.initChild(again + i, new Move(i, 2, i, 3), PieceColor.BLACK, null, 0.2f);
+            }
+            tree.publish(MctsTree.ROOT, again, 5, false);
+            failures += check(tree.childCount(MctsTree.ROOT) == 5, "新根发布了 5 个子节点");
+        }
+
+        System.out.println("========== MctsTree 扩展权校验 ==========");
+        if (failures > 0) {
+            System.out.println("失败：" + failures + " 项");
+            System.exit(1);
+        }
+        System.out.println("全部通过");
+    }
+
+    private static int check(boolean ok, String what) {
+        System.out.println((ok ? "通过  " : "失败  ") + what);
+        return ok ? 0 : 1;
+    }
+}
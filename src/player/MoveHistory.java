@@ -0,0 +1,120 @@
+package player;
+
+import core.board.Board;
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.util.Arrays;
+
+/**
+ * 双子走法的排序启发：按颜色记录单子的历史分，每层保留两个杀手走法，
+ * 并以对方上一手双子为键记录反制走法。内部节点据此排序，不再逐个静态评估双子。
+ * <p>
+ * 表在迭代加深的各轮与各回合之间保留，每回合开始时调用 {@link #newTurn()} 衰减。
+ * Lazy SMP 的各线程共享一张表，更新不加锁：int 与引用的写入本身是原子的，竞争只会丢失个别更新。
+ */
+final class MoveHistory {
+    static final int MAX_PLY = 64;
+
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+    private static final int HISTORY_LIMIT = 1 << 18;  // 超过时整体减半，保持在杀手加分之下
+    private static final int KILLER_BONUS = 1 << 20;
+    private static final int COUNTER_BONUS = 1 << 19;
+
+    private final int[][] history = new int[2][CELLS];
+    private final Move[][] killers = new Move[MAX_PLY][2];
+    private final Move[][] counters = new Move[2][CELLS * CELLS];
+
+    /**
+     * 走法的排序分：杀手 > 反制 > 两子历史分之和
+     * @param previous 对方刚走的一手，根节点为 null
+     */
+    int score(Move move, PieceColor player, int ply, Move previous) {
+        int side = side(player);
+        int score = history[side][cell1(move)];
+        if (!move.isFirstMove()) {
+            score += history[side][cell2(move)];
+        }
+        if (ply < MAX_PLY) {
+            Move[] slots = killers[ply];
+            if (move.equals(slots[0])) {
+                score += KILLER_BONUS + 1;
+            } else if (move.equals(slots[1])) {
+                score += KILLER_BONUS;
+            }
+        }
+        if (previous != null && move.equals(counters[side][pairIndex(previous)])) {
+            score += COUNTER_BONUS;
+        }
+        return score;
+    }
+
+    /**
+     * 记录一次 beta 截断：深度越大的截断越可信，按 depth² 加分
+     */
+    void recordCutoff(Move move, PieceColor player, int ply, Move previous, int depth) {
+        int side = side(player);
+        int bonus = depth * depth;
+        int c1 = cell1(move);
+        history[side][c1] += bonus;
+        boolean overflow = history[side][c1] > HISTORY_LIMIT;
+        if (!move.isFirstMove()) {
+            int c2 = cell2(move);
+            history[side][c2] += bonus;
+            overflow |= history[side][c2] > HISTORY_LIMIT;
+        }
+        if (overflow) {
+            halve();
+        }
+        if (ply < MAX_PLY) {
+            Move[] slots = killers[ply];
+            if (!move.equals(slots[0])) {
+                slots[1] = slots[0];
+                slots[0] = move;
+            }
+        }
+        if (previous != null) {
+            counters[side][pairIndex(previous)] = move;
+        }
+    }
+
+    /**
+     * 新回合开始：历史分减半；双方各走一手后原来第 ply+2 层正好成为第 ply 层，杀手表整体前移两层
+     */
+    void newTurn() {
+        halve();
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            killers[ply] = ply + 2 < MAX_PLY ? killers[ply + 2] : new Move[2];
+        }
+    }
+
+    void clear() {
+        for (int[] h : history) Arrays.fill(h, 0);
+        for (int ply = 0; ply < MAX_PLY; ply++) killers[ply] = new Move[2];
+        for (Move[] c : counters) Arrays.fill(c, null);
+    }
+
+    private void halve() {
+        for (int[] h : history) {
+            for (int i = 0; i < h.length; i++) h[i] >>= 1;
+        }
+    }
+
+    private static int pairIndex(Move m) {
+        int c1 = cell1(m);
+        int c2 = m.isFirstMove() ? c1 : cell2(m);
+        return Math.min(c1, c2) * CELLS + Math.max(c1, c2);
+    }
+
+    private static int cell1(Move m) {
+        return m.getRow1() * Board.SIZE + m.getCol1();
+    }
+
+    private static int cell2(Move m) {
+        return m.getRow2() * Board.SIZE + m.getCol2();
+    }
+
+    private static int side(PieceColor player) {
+        return player == PieceColor.BLACK ? 0 : 1;
+    }
+}
@@ -0,0 +1,215 @@
+package player;
+
+import core.board.Board;
+import core.board.PieceColor;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MCTS 的快速走子模拟：一直下到分出胜负或无处可下，不在中途截断做静态评估。
+ * <p>
+ * 每回合先看己方有没有现成的六连机会，有就补成六连；否则对方有威胁时贪心地用两子去挡
+ * （每子选能挡住最多条威胁路的空位）；都没有时在已有棋子两格以内随机下两子。
+ * <p>
+ * 模拟不在 {@link Board} 上进行：Board 为搜索维护的哈希、历史与前沿引用计数在这里都用不上，
+ * 却占了落子开销的大半。每次模拟先把局面读进自带的精简棋盘，只增量维护格点、各路双方子数
+ * 和可能成为威胁的路；某条路被占满即分出胜负。候选点用拒绝采样：随机取一个已有棋子，
+ * 在其周围 5x5 内随机取空位。缓冲区都在构造时分配，模拟过程中不创建对象。
+ * <p>
+ * 一个实例只供一个线程使用，随机数取自该线程的 {@link ThreadLocalRandom}。
+ */
+final class Rollout {
+    private static final int CELLS = Board.SIZE * Board.SIZE;
+    private static final int NEAR = 2;           // 随机落子距已有棋子的最大距离
+    private static final int SAMPLE_ATTEMPTS = 32;
+    private static final int MAX_THREATS = 256;  // 威胁路表容量，满了就退回全盘扫描
+
+    private final byte[] cells = new byte[CELLS];  // 0 空，1 黑，2 白
+    private final byte[][] windowStones = new byte[2][Board.WINDOW_COUNT];
+    private final int[] stones = new int[CELLS];   // 已落棋子的格点，供随机采样
+    private int stoneCount;
+    private int winner;                            // 0 未分胜负，1 黑，2 白
+
+    // 两方各自成为威胁时登记过的路，之后可能被对方挡住，使用时再检查
+    private final int[][] threats = new int[2][MAX_THREATS];
+    private final int[] threatCount = new int[2];
+    private final boolean[] threatOverflow = new boolean[2];
+
+    private final int[] hits = new int[CELLS];
+    private final int[] touched = new int[CELLS];
+
+    /**
+     * 从轮到 toMove 走两子的局面模拟到终局，不修改 b
+     * @return 胜方；棋盘下满仍未分出胜负时为 null
+     */
+    PieceColor play(Board b, PieceColor toMove) {
+        load(b);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int side = toMove == PieceColor.BLACK ? 0 : 1;
+        while (winner == 0) {
+            boolean placed;
+            if (completeSix(side)) {
+                placed = true;
+            } else if (hasThreat(1 - side)) {
+                placed = block(side, random);
+            } else {
+                placed = placeRandom(side, random, 2);
+            }
+            if (!placed) break;
+            side = 1 - side;
+        }
+        return winner == 0 ? null : winner == 1 ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+
+    private void load(Board b) {
+        stoneCount = 0;
+        winner = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            int code = b.stoneCode(cell / Board.SIZE, cell % Board.SIZE);
+            cells[cell] = (byte) code;
+            if (code != 0) stones[stoneCount++] = cell;
+        }
+        for (int side = 0; side < 2; side++) {
+            threatCount[side] = 0;
+            threatOverflow[side] = false;
+        }
+        for (int w = 0; w < Board.WINDOW_COUNT; w++) {
+            int black = b.windowStones(w, PieceColor.BLACK);
+            int white = b.windowStones(w, PieceColor.WHITE);
+            windowStones[0][w] = (byte) black;
+            windowStones[1][w] = (byte) white;
+            if (black >= 4 && white == 0) addThreat(0, w);
+            if (white >= 4 && black == 0) addThreat(1, w);
+        }
+        PieceColor won = b.winner();
+        if (won != null) winner = won == PieceColor.BLACK ? 1 : 2;
+    }
+
+    private void place(int cell, int side) {
+        cells[cell] = (byte) (side + 1);
+        stones[stoneCount++] = cell;
+        byte[] own = windowStones[side];
+        for (int w : Board.windowsThrough(cell)) {
+            int after = ++own[w];
+            if (after == Board.WINDOW_LENGTH) {
+                if (winner == 0) winner = side + 1;
+            } else if (after == 4 && windowStones[1 - side][w] == 0) {
+                addThreat(side, w);
+            }
+        }
+    }
+
+    private void addThreat(int side, int w) {
+        if (threatCount[side] == MAX_THREATS) {
+            threatOverflow[side] = true;
+        } else {
+            threats[side][threatCount[side]++] = w;
+        }
+    }
+
+    /**
+     * side 的路 w 是否有至少四子且没有对方棋子
+     */
+    private boolean isThreat(int side, int w) {
+        return windowStones[side][w] >= 4 && windowStones[1 - side][w] == 0;
+    }
+
+    /**
+     * 清掉登记表里已被挡住的路，返回 side 是否仍有威胁
+     */
+    private boolean hasThreat(int side) {
+        if (threatOverflow[side]) return true;
+        int[] list = threats[side];
+        int n = 0;
+        for (int i = 0; i < threatCount[side]; i++) {
+            if (isThreat(side, list[i])) list[n++] = list[i];
+        }
+        threatCount[side] = n;
+        return n > 0;
+    }
+
+    private boolean completeSix(int side) {
+        if (!hasThreat(side)) return false;
+        int window = -1;
+        if (threatOverflow[side]) {
+            for (int w = 0; w < Board.WINDOW_COUNT && window < 0; w++) {
+                if (isThreat(side, w)) window = w;
+            }
+        } else {
+            window = threats[side][0];
+        }
+        if (window < 0) return false;
+        // 只差一子时补上即胜，第二子不必再下
+        for (int k = 0; k < Board.WINDOW_LENGTH; k++) {
+            int cell = Board.windowCell(window, k);
+            if (cells[cell] == 0) place(cell, side);
+        }
+        return true;
+    }
+
+    /**
+     * 用两子贪心地挡对方的威胁路；一子已挡住全部时第二子随机
+     */
+    private boolean block(int side, ThreadLocalRandom random) {
+        for (int stone = 0; stone < 2; stone++) {
+            int cell = mostHitCell(side);
+            if (cell < 0) return placeRandom(side, random, 2 - stone);
+            place(cell, side);
+        }
+        return true;
+    }
+
+    /**
+     * 在对方仍成立的威胁路上，找经过最多条这种路的空位；没有威胁时返回 -1
+     */
+    private int mostHitCell(int blocker) {
+        int attacker = 1 - blocker;
+        int touchedCount = 0;
+        int best = -1;
+        boolean scanAll = threatOverflow[attacker];
+        int n = scanAll ? Board.WINDOW_COUNT : threatCount[attacker];
+        for (int i = 0; i < n; i++) {
+            int w = scanAll ? i : threats[attacker][i];
+            if (!isThreat(attacker, w)) continue;
+            for (int k = 0; k < Board.WINDOW_LENGTH; k++) {
+                int cell = Board.windowCell(w, k);
+                if (cells[cell] != 0) continue;
+                if (hits[cell]++ == 0) touched[touchedCount++] = cell;
+                if (best < 0 || hits[cell] > hits[best]) best = cell;
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            hits[touched[i]] = 0;
+        }
+        return best;
+    }
+
+    /**
+     * 随机下 stones（1 或 2）个子，尽量落在已有棋子两格以内；空位不够时返回 false
+     */
+    private boolean placeRandom(int side, ThreadLocalRandom random, int stones) {
+        if (CELLS - stoneCount < stones) return false;
+        for (int i = 0; i < stones; i++) {
+            place(sample(random), side);
+        }
+        return true;
+    }
+
+    private int sample(ThreadLocalRandom random) {
+        if (stoneCount > 0) {
+            for (int attempt = 0; attempt < SAMPLE_ATTEMPTS; attempt++) {
+                int anchor = stones[random.nextInt(stoneCount)];
+                int r = anchor / Board.SIZE + random.nextInt(2 * NEAR + 1) - NEAR;
+                int c = anchor % Board.SIZE + random.nextInt(2 * NEAR + 1) - NEAR;
+                if (r < 0 || r >= Board.SIZE || c < 0 || c >= Board.SIZE) continue;
+                int cell = r * Board.SIZE + c;
+                if (cells[cell] == 0) return cell;
+            }
+        }
+        // 附近都下满了（或空棋盘）：在全部空位中均匀抽取
+        int skip = random.nextInt(CELLS - stoneCount);
+        for (int cell = 0; ; cell++) {
+            if (cells[cell] == 0 && skip-- == 0) return cell;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package player;
+
+/**
+ * 一次搜索的截止时间与协作式中止标志。
+ * <p>
+ * 搜索在每个节点调用 {@link #poll()}：平时只读一个 volatile 标志，
+ * 每 pollInterval 次才读一次时钟；到期或被 {@link #abort()} 后所有线程都会看到中止，
+ * 各自立即回退并放弃未完成的迭代。计数器不做同步，多线程竞争只会让读时钟的时机略有偏差。
+ */
+public final class SearchDeadline {
+    public static final int DEFAULT_POLL_INTERVAL = 4;
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+    private final int pollInterval;
+    private volatile boolean aborted;
+    private int polls;
+
+    private SearchDeadline(long deadlineNanos, boolean bounded, int pollInterval) {
+        if (pollInterval < 1) {
+            throw new IllegalArgumentException("pollInterval must be positive: " + pollInterval);
+        }
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+        this.pollInterval = pollInterval;
+    }
+
+    /**
+     * 从现在起 millis 毫秒后到期
+     */
+    public static SearchDeadline after(long millis) {
+        return after(millis, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * @param pollInterval 每隔多少次 poll 读一次时钟
+     */
+    public static SearchDeadline after(long millis, int pollInterval) {
+        return new SearchDeadline(System.nanoTime() + millis * 1_000_000L, true, pollInterval);
+    }
+
+    /**
+     * 不限时，只能通过 abort 中止
+     */
+    public static SearchDeadline unlimited() {
+        return new SearchDeadline(0, false, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * 搜索节点中的廉价检查。
+     * @return 已中止时返回 true，调用方应立即回退
+     */
+    public boolean poll() {
+        if (aborted) return true;
+        if (bounded && ++polls >= pollInterval) {
+            polls = 0;
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                abort();
+            }
+        }
+        return aborted;
+    }
+
+    /**
+     * 立即读时钟检查是否到期，用于迭代之间等低频位置
+     */
+    public boolean expired() {
+        if (!aborted && bounded && System.nanoTime() - deadlineNanos >= 0) {
+            abort();
+        }
+        return aborted;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public synchronized void abort() {
+        aborted = true;
+        notifyAll();
+    }
+
+    public long remainingMillis() {
+        if (!bounded) return Long.MAX_VALUE;
+        if (aborted) return 0;
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    /**
+     * 最多等待 millis 毫秒，中止时提前醒来。
+     * @return 是否已中止
+     */
+    public synchronized boolean await(long millis) throws InterruptedException {
+        if (!aborted) {
+            wait(Math.max(1, Math.min(millis, remainingMillis())));
+        }
+        return expired();
+    }
+}
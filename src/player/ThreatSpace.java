@@ -0,0 +1,150 @@
+package player;
+
+import core.board.Board;
+import core.board.PieceColor;
+
+import java.util.Arrays;
+
+/**
+ * 威胁空间搜索共用的路（六格窗口）运算，威胁与威胁数的定义见 {@link VcdtSolver}。
+ * 格点统一用 row*SIZE+col 表示。
+ */
+final class ThreatSpace {
+    static final int CELLS = Board.SIZE * Board.SIZE;
+    static final int MAX_WINDOWS_PER_CELL = 4 * Board.WINDOW_LENGTH;
+
+    private ThreatSpace() {
+    }
+
+    /**
+     * color 已有威胁时把补成六连的两子写入 out（out 可为 null）。
+     */
+    static boolean completeSix(Board b, PieceColor color, int[] out) {
+        PieceColor other = color.opposite();
+        for (int w = 0; w < Board.WINDOW_COUNT; w++) {
+            if (b.windowStones(w, color) < 4 || b.windowStones(w, other) > 0) continue;
+            if (out != null) {
+                int n = 0;
+                for (int k = 0; k < Board.WINDOW_LENGTH && n < 2; k++) {
+                    int cell = Board.windowCell(w, k);
+                    if (isEmpty(b, cell)) out[n++] = cell;
+                }
+                // 只差一子时第二子任意落在一个空位上
+                for (int cell = 0; n < 2 && cell < CELLS; cell++) {
+                    if (isEmpty(b, cell) && cell != out[0]) out[n++] = cell;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    static int[] threatWindows(Board b, PieceColor color) {
+        PieceColor other = color.opposite();
+        int[] found = new int[8];
+        int n = 0;
+        for (int w = 0; w < Board.WINDOW_COUNT; w++) {
+            if (b.windowStones(w, color) >= 4 && b.windowStones(w, other) == 0) {
+                if (n == found.length) found = Arrays.copyOf(found, n * 2);
+                found[n++] = w;
+            }
+        }
+        return Arrays.copyOf(found, n);
+    }
+
+    static int newThreats(Board b, PieceColor color, int c1, int c2, int[] out) {
+        PieceColor other = color.opposite();
+        int n = 0;
+        for (int cell : new int[]{c1, c2}) {
+            for (int w : Board.windowsThrough(cell)) {
+                if (b.windowStones(w, color) < 4 || b.windowStones(w, other) > 0) continue;
+                boolean seen = false;
+                for (int i = 0; i < n && !seen; i++) seen = out[i] == w;
+                if (!seen) out[n++] = w;
+            }
+        }
+        return n;
+    }
+
+    static boolean blocksAll(Board b, int[] windows, PieceColor blocker) {
+        for (int w : windows) {
+            if (b.windowStones(w, blocker) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 挡住全部威胁至少需要的子数，超过 2 时返回 3
+     */
+    static int hittingNumber(Board b, int[] threats) {
+        if (threats.length == 0) return 0;
+        int[] empties = emptyCells(b, threats);
+        for (int cell : empties) {
+            if (hitsAll(threats, cell, cell)) return 1;
+        }
+        for (int i = 0; i < empties.length; i++) {
+            for (int j = i + 1; j < empties.length; j++) {
+                if (hitsAll(threats, empties[i], empties[j])) return 2;
+            }
+        }
+        return 3;
+    }
+
+    static boolean hitsAll(int[] windows, int c1, int c2) {
+        for (int w : windows) {
+            boolean hit = false;
+            for (int k = 0; k < Board.WINDOW_LENGTH && !hit; k++) {
+                int cell = Board.windowCell(w, k);
+                hit = cell == c1 || cell == c2;
+            }
+            if (!hit) return false;
+        }
+        return true;
+    }
+
+    static int[] emptyCells(Board b, int[] windows) {
+        int[] cells = new int[windows.length * 2];
+        int n = 0;
+        for (int w : windows) {
+            for (int k = 0; k < Board.WINDOW_LENGTH; k++) {
+                int cell = Board.windowCell(w, k);
+                if (!isEmpty(b, cell)) continue;
+                boolean seen = false;
+                for (int i = 0; i < n && !seen; i++) seen = cells[i] == cell;
+                if (!seen) cells[n++] = cell;
+            }
+        }
+        return Arrays.copyOf(cells, n);
+    }
+
+    /**
+     * 进攻候选格：按所在的"己方至少两子、无对方棋子"的路加权排序，取前 limit 个
+     */
+    static int[] attackCells(Board b, PieceColor attacker, int limit) {
+        PieceColor other = attacker.opposite();
+        int[] weight = new int[CELLS];
+        for (int w = 0; w < Board.WINDOW_COUNT; w++) {
+            int own = b.windowStones(w, attacker);
+            if (own < 2 || b.windowStones(w, other) > 0) continue;
+            for (int k = 0; k < Board.WINDOW_LENGTH; k++) {
+                int cell = Board.windowCell(w, k);
+                if (isEmpty(b, cell)) weight[cell] += 1 << own;
+            }
+        }
+        int n = 0;
+        int[] cells = new int[CELLS];
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (weight[cell] > 0) cells[n++] = cell;
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = cells[i];
+        Arrays.sort(order, (x, y) -> Integer.compare(weight[y], weight[x]));
+        int[] top = new int[Math.min(n, limit)];
+        for (int i = 0; i < top.length; i++) top[i] = order[i];
+        return top;
+    }
+
+    static boolean isEmpty(Board b, int cell) {
+        return b.stoneCode(cell / Board.SIZE, cell % Board.SIZE) == 0;
+    }
+}
@@ -0,0 +1,135 @@
+package player;
+
+import core.board.PieceColor;
+import core.game.GameClock;
+import core.game.Move;
+
+/**
+ * 按对局时钟为每一步分配思考时间。
+ * <p>
+ * 软时限决定是否开始新一轮迭代，硬时限通过 {@link SearchDeadline} 强制中止搜索。
+ * 迭代间最佳走法发生变化或局面存在威胁时放宽软时限，连续几轮结果不变时收紧；
+ * 没有时钟时退回固定的每步时限。
+ * <p>
+ * 决策线程调用 startMove 与 threatsPresent，剪枝搜索线程调用 onIteration 与 forcedMove，
+ * MCTS 工作线程反复查询 softExpired。修改时限与缩放系数的方法互斥执行，
+ * 并把算好的软截止时刻写入 volatile 字段，softExpired 只读这一个字段，不加锁。
+ */
+public final class TimeManager {
+    public static final long DEFAULT_MOVE_TIME_MS = 9800;
+
+    private static final long SAFETY_MARGIN_MS = 300;  // 线程回收、GC 与界面刷新的余量
+    private static final long MIN_MOVE_TIME_MS = 50;
+    private static final int DEFAULT_MOVES_TO_GO = 30;  // 包干制下假设的剩余步数
+    private static final int MIN_MOVES_TO_GO = 10;
+    private static final int HARD_LIMIT_FACTOR = 4;
+    private static final double MAX_SCALE = 2.5;
+    private static final double MIN_SCALE = 0.4;
+
+    private long startNanos;
+    private long softLimitMs;
+    private long hardLimitMs;
+    private double scale;
+    private Move lastBest;
+    private int stableIterations;
+    private volatile long softDeadlineNanos;  // min(硬时限, 软时限 * scale) 对应的时刻，每次修改后重算
+
+    /**
+     * 开始为一步计时并计算软、硬时限
+     * @param clock 对局时钟，null 表示没有时钟（使用固定时限）
+     */
+    public synchronized void startMove(GameClock clock, PieceColor side) {
+        startNanos = System.nanoTime();
+        scale = 1.0;
+        lastBest = null;
+        stableIterations = 0;
+        computeLimits(clock, side);
+        publishSoftDeadline();
+    }
+
+    private void computeLimits(GameClock clock, PieceColor side) {
+        if (clock == null) {
+            softLimitMs = DEFAULT_MOVE_TIME_MS;
+            hardLimitMs = DEFAULT_MOVE_TIME_MS;
+            return;
+        }
+
+        long remaining = clock.getRemainingMs(side) - SAFETY_MARGIN_MS;
+        if (remaining <= MIN_MOVE_TIME_MS) {
+            softLimitMs = MIN_MOVE_TIME_MS;
+            hardLimitMs = MIN_MOVE_TIME_MS;
+            return;
+        }
+        int movesToGo = clock.getMovesToGo(side);
+        if (movesToGo <= 0) {
+            movesToGo = Math.max(MIN_MOVES_TO_GO, DEFAULT_MOVES_TO_GO - clock.getMovesMade(side) / 2);
+        }
+        long soft = remaining / movesToGo + clock.getIncrementMs() * 3 / 4;
+        softLimitMs = Math.max(MIN_MOVE_TIME_MS, Math.min(soft, remaining));
+        // 不是时段最后一步时，单步最多用掉剩余时间的一半
+        long cap = movesToGo > 1 ? remaining / 2 : remaining;
+        hardLimitMs = Math.max(softLimitMs, Math.min(softLimitMs * HARD_LIMIT_FACTOR, cap));
+    }
+
+    /**
+     * 本步的硬截止时间
+     */
+    public synchronized SearchDeadline hardDeadline() {
+        return SearchDeadline.after(Math.max(0, hardLimitMs - elapsedMs()));
+    }
+
+    /**
+     * 每完成一轮迭代调用一次：最佳走法变化说明局面尚不稳定，多花时间；连续不变则提前结束
+     */
+    public synchronized void onIteration(Move best) {
+        if (best == null) return;
+        if (lastBest != null && !best.equals(lastBest)) {
+            scale = Math.min(MAX_SCALE, scale * 1.5);
+            stableIterations = 0;
+        } else if (lastBest != null && ++stableIterations >= 2) {
+            scale = Math.max(MIN_SCALE, scale * 0.8);
+        }
+        lastBest = best;
+        publishSoftDeadline();
+    }
+
+    /**
+     * 局面中存在需要应对的威胁
+     */
+    public synchronized void threatsPresent() {
+        scale = Math.min(MAX_SCALE, scale * 1.3);
+        publishSoftDeadline();
+    }
+
+    /**
+     * 只剩一种合理应对（如已找到必胜），无需继续加深
+     */
+    public synchronized void forcedMove() {
+        scale = 0;
+        publishSoftDeadline();
+    }
+
+    /**
+     * 软时限是否已到，到了就不再开始新的迭代
+     */
+    public boolean softExpired() {
+        return System.nanoTime() - softDeadlineNanos >= 0;
+    }
+
+    private void publishSoftDeadline() {
+        long softMs = Math.min(hardLimitMs, (long) (softLimitMs * scale));
+        softDeadlineNanos = startNanos + softMs * 1_000_000L;
+    }
+
+    public synchronized long elapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    public synchronized long getSoftLimitMs() {
+        return softLimitMs;
+    }
+
+    public synchronized long getHardLimitMs() {
+        return hardLimitMs;
+    }
+}
@@ -0,0 +1,139 @@
+package player;
+
+import core.board.Board;
+import core.game.Move;
+
+import java.util.Arrays;
+
+/**
+ * 定长无锁置换表，可由多个搜索线程、多个引擎实例共享。
+ * <p>
+ * 表是一个预分配的 long[]，容量为 2 的幂。每个桶含两个槽：
+ * 槽 0 按深度优先替换，槽 1 总是替换。每个槽占两个 long：
+ * {@code key ^ data} 与 {@code data}。读取时用 XOR 校验键，
+ * 因此并发写入造成的撕裂条目会被当作未命中，无需加锁。
+ * <p>
+ * 表在回合与迭代之间不清空：每次搜索开始时调用 {@link #newSearch()} 推进世代，
+ * 旧世代的条目仍可用于剪枝和着法排序，但在深度优先槽中会被优先替换。
+ * <p>
+ * data 的位布局：
+ * <pre>
+ *  0-31  分数（int）
+ * 32-37  深度（0~63）
+ * 38-39  边界类型 + 1（0 表示空槽）
+ * 40-48  最佳着法第一子格点 row*SIZE+col（NO_CELL 表示无）
+ * 49-57  最佳着法第二子格点
+ * 58-63  世代
+ * </pre>
+ */
+public final class TranspositionTable {
+    public static final int DEFAULT_SIZE_MB = 32;
+
+    // 边界类型，与原 CacheEntry.flag 的取值一致
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+
+    private static final int NO_CELL = 511;
+    private static final int MAX_DEPTH = 63;
+    private static final int GENERATION_MASK = 63;
+    private static final int LONGS_PER_BUCKET = 4;
+    private static final long MAX_BUCKETS = 1L << 27;
+
+    private final long[] table;
+    private final int bucketMask;
+    // 只在搜索开始前由发起线程修改，提交给工作线程时已建立 happens-before
+    private int generation;
+
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb <= 0) {
+            throw new IllegalArgumentException("transposition table size must be positive: " + sizeMb);
+        }
+        long buckets = (sizeMb * 1024L * 1024L) / (LONGS_PER_BUCKET * Long.BYTES);
+        buckets = Math.min(MAX_BUCKETS, Long.highestOneBit(Math.max(1, buckets)));
+        table = new long[(int) buckets * LONGS_PER_BUCKET];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * 查找 key 对应的条目。
+     * @return 条目数据（用本类的静态方法解码）；未命中返回 0
+     */
+    public long probe(long key) {
+        int base = bucket(key);
+        for (int slot = base; slot < base + LONGS_PER_BUCKET; slot += 2) {
+            long data = table[slot + 1];
+            if (data != 0 && (table[slot] ^ data) == key) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    public void store(long key, int score, int depth, int flag, Move best) {
+        long data = pack(score, depth, flag, best);
+        int base = bucket(key);
+        long deepData = table[base + 1];
+        boolean sameKey = (table[base] ^ deepData) == key;
+        boolean stale = generation(deepData) != generation;
+        int slot = (deepData == 0 || sameKey || stale || depth >= depth(deepData)) ? base : base + 2;
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+
+    /**
+     * 开始新一轮搜索（新回合或新的思考），此前写入的条目变为旧世代。
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 32) & MAX_DEPTH;
+    }
+
+    public static int flag(long data) {
+        return ((int) (data >>> 38) & 3) - 1;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 58) & GENERATION_MASK;
+    }
+
+    /**
+     * 条目中记录的最佳着法，没有时返回 null。
+     */
+    public static Move bestMove(long data) {
+        int c1 = (int) (data >>> 40) & NO_CELL;
+        int c2 = (int) (data >>> 49) & NO_CELL;
+        if (c1 == NO_CELL) return null;
+        if (c2 == NO_CELL) return new Move(c1 / Board.SIZE, c1 % Board.SIZE);
+        return new Move(c1 / Board.SIZE, c1 % Board.SIZE, c2 / Board.SIZE, c2 % Board.SIZE);
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    private long pack(int score, int depth, int flag, Move best) {
+        long c1 = NO_CELL, c2 = NO_CELL;
+        if (best != null) {
+            c1 = best.getRow1() * Board.SIZE + best.getCol1();
+            if (!best.isFirstMove()) {
+                c2 = best.getRow2() * Board.SIZE + best.getCol2();
+            }
+        }
+        long d = Math.max(0, Math.min(MAX_DEPTH, depth));
+        return (score & 0xFFFFFFFFL) | (d << 32) | ((long) (flag + 1) << 38) | (c1 << 40) | (c2 << 49)
+                | ((long) generation << 58);
+    }
+}
@@ -0,0 +1,151 @@
+package player;
+
+import core.board.Board;
+import core.board.PieceColor;
+import core.game.Move;
+
+import java.util.Arrays;
+
+/**
+ * 六子棋连续双威胁（VCDT）必胜求解器。
+ * <p>
+ * 一方在某条路上有至少四子且没有对方棋子时，下一回合就能补成六连，这条路构成威胁；
+ * 威胁数是对方为阻止六连至少要下的子数。进攻方每步只考虑使威胁数达到 2 以上的双子：
+ * 达到 3 时对方两子挡不住，直接获胜；恰为 2 时对方两子必须全部用来防守，
+ * 于是只需枚举所有能同时挡住全部威胁的防守组合并递归。
+ * 对方若有现成的六连机会，进攻方的这一步还必须先把它们挡住。
+ * <p>
+ * 求得的胜利是严格证明；"无解"只表示在候选数、深度与节点预算之内没有找到。
+ * 一个实例不可多线程共用。
+ */
+public final class VcdtSolver {
+    public enum Result { WIN, NO_WIN, UNKNOWN }
+
+    private static final int MAX_ATTACK_CELLS = 24;
+
+    private final int nodeBudget;
+    private SearchDeadline deadline;
+    private int nodes;
+    private boolean exhausted;
+    private Result lastResult = Result.NO_WIN;
+
+    /**
+     * @param nodeBudget 一次求解最多展开的进攻节点数
+     */
+    public VcdtSolver(int nodeBudget) {
+        if (nodeBudget <= 0) {
+            throw new IllegalArgumentException("node budget must be positive: " + nodeBudget);
+        }
+        this.nodeBudget = nodeBudget;
+    }
+
+    /**
+     * 为 attacker（轮到其走两子）寻找连续双威胁的必胜走法。
+     * 求解过程中临时在 board 上落子，返回前恢复原状。
+     * @param maxDepth 进攻方最多连续走几步
+     * @return 必胜序列的第一步；没有找到时返回 null，原因见 {@link #getLastResult()}
+     */
+    public Move solve(Board board, PieceColor attacker, int maxDepth) {
+        return solve(board, attacker, maxDepth, SearchDeadline.unlimited());
+    }
+
+    /**
+     * 同 {@link #solve(Board, PieceColor, int)}，到期时与节点预算耗尽一样按 UNKNOWN 返回
+     */
+    public Move solve(Board board, PieceColor attacker, int maxDepth, SearchDeadline deadline) {
+        this.deadline = deadline;
+        nodes = 0;
+        exhausted = false;
+        if (board.winner() != null) {
+            lastResult = Result.NO_WIN;
+            return null;
+        }
+        int[] first = new int[2];
+        boolean win = attack(board, attacker, maxDepth, first);
+        lastResult = win ? Result.WIN : exhausted ? Result.UNKNOWN : Result.NO_WIN;
+        if (!win) return null;
+        return new Move(first[0] / Board.SIZE, first[0] % Board.SIZE, first[1] / Board.SIZE, first[1] % Board.SIZE);
+    }
+
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 进攻节点：attacker 走两子。out 非空时（根节点）写入获胜的第一步。
+     */
+    private boolean attack(Board b, PieceColor attacker, int depth, int[] out) {
+        if (++nodes > nodeBudget || deadline.poll()) {
+            exhausted = true;
+            return false;
+        }
+        PieceColor defender = attacker.opposite();
+
+        // 1. 己方已有威胁：直接补成六连
+        if (ThreatSpace.completeSix(b, attacker, out)) return true;
+        if (depth == 0) return false;
+
+        // 2. 对方的威胁必须在这一步全部挡住，挡不住就没有连续双威胁可言
+        int[] defenderThreats = ThreatSpace.threatWindows(b, defender);
+        if (ThreatSpace.hittingNumber(b, defenderThreats) > 2) return false;
+
+        // 3. 只在己方至少两子、对方没有棋子的路上找进攻点
+        int[] cells = ThreatSpace.attackCells(b, attacker, MAX_ATTACK_CELLS);
+        int base = b.getMoveCount();
+        int[] threats = new int[2 * ThreatSpace.MAX_WINDOWS_PER_CELL];
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = i + 1; j < cells.length; j++) {
+                int c1 = cells[i], c2 = cells[j];
+                b.makeMove(c1 / Board.SIZE, c1 % Board.SIZE, attacker);
+                b.makeMove(c2 / Board.SIZE, c2 % Board.SIZE, attacker);
+                boolean win = false;
+                if (ThreatSpace.blocksAll(b, defenderThreats, attacker)) {
+                    // 落子前己方没有威胁，新威胁一定经过 c1 或 c2
+                    int n = ThreatSpace.newThreats(b, attacker, c1, c2, threats);
+                    int[] created = Arrays.copyOf(threats, n);
+                    int h = ThreatSpace.hittingNumber(b, created);
+                    if (h >= 3) {
+                        win = true;
+                    } else if (h == 2) {
+                        win = defend(b, attacker, created, depth);
+                    }
+                }
+                b.rollback(base);
+                if (win) {
+                    if (out != null) {
+                        out[0] = c1;
+                        out[1] = c2;
+                    }
+                    return true;
+                }
+                if (exhausted) return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 防守节点：defender 的两子必须同时挡住全部（恰需两子才能挡住的）威胁，
+     * 枚举每一种挡法，全部被进攻方继续攻破才算必胜。
+     */
+    private boolean defend(Board b, PieceColor attacker, int[] threats, int depth) {
+        PieceColor defender = attacker.opposite();
+        int[] empties = ThreatSpace.emptyCells(b, threats);
+        int base = b.getMoveCount();
+        for (int i = 0; i < empties.length; i++) {
+            for (int j = i + 1; j < empties.length; j++) {
+                if (!ThreatSpace.hitsAll(threats, empties[i], empties[j])) continue;
+                b.makeMove(empties[i] / Board.SIZE, empties[i] % Board.SIZE, defender);
+                b.makeMove(empties[j] / Board.SIZE, empties[j] % Board.SIZE, defender);
+                boolean refuted = b.winner() == defender || !attack(b, attacker, depth - 1, null);
+                b.rollback(base);
+                if (refuted) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -6,6 +6,7 @@ import java.awt.*;
 import java.awt.event.*;
 import core.board.Board;
 import core.board.PieceColor;
+import core.game.GameClock;
 import core.game.Move;
 import player.AlphaBetaAI;
 import util.GameLogger;
@@ -17,6 +18,7 @@ public class GameFrame extends JFrame {
     private static final int MARGIN = 40;
     private static final int PANEL_WIDTH = CELL_SIZE * (BOARD_SIZE - 1) + 2 * MARGIN;
     private static final int PANEL_HEIGHT = CELL_SIZE * (BOARD_SIZE - 1) + 2 * MARGIN;
+    private static final long GAME_TIME_MS = 5 * 60 * 1000;  // 每方局时（包干制）
 
     private Board board;
     private AlphaBetaAI aiPlayer;
@@ -44,10 +46,17 @@ public class GameFrame extends JFrame {
     private long blackTotalTime = 0;
     private long whiteTotalTime = 0;
     private long currentStepStartTime = 0;
+    private GameClock gameClock;
 
     public GameFrame(boolean humanFirst) {
         setTitle("六子棋 - 人机对战");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                aiPlayer.shutdown();
+            }
+        });
         setLocationRelativeTo(null);
         setResizable(false);
 
@@ -85,6 +94,9 @@ public class GameFrame extends JFrame {
         PieceColor aiColor = (humanColor == PieceColor.BLACK) ? PieceColor.WHITE : PieceColor.BLACK;
         aiPlayer.setColor(aiColor);
         aiPlayer.setBoard(board);
+        gameClock = new GameClock(GAME_TIME_MS, 0, 0);
+        aiPlayer.setGameClock(gameClock);
+        aiPlayer.setPondering(true);  // 玩家思考时 AI 在后台继续搜索
         currentPlayer = PieceColor.BLACK;  // 黑棋总是先行
         gameOver = false;
         moveNumber = 0;
@@ -265,7 +277,12 @@ public class GameFrame extends JFrame {
         }
     }
 
-    private void updateTotalTime(PieceColor color, long stepTime) {
+    /**
+     * 记入 color 这一步的用时。局时用完即判负并结束对局，与 GameController 一样，超时的这一步不再判胜负。
+     * @return 是否因超时结束了对局
+     */
+    private boolean updateTotalTime(PieceColor color, long stepTime) {
+        gameClock.recordMove(color, stepTime);
         if (color == PieceColor.BLACK) {
             blackTotalTime += stepTime;
             blackTotalTimeLabel.setText("局时：" + formatTime(blackTotalTime));
@@ -275,6 +292,11 @@ public class GameFrame extends JFrame {
             whiteTotalTimeLabel.setText("局时：" + formatTime(whiteTotalTime));
             whiteStepTimeLabel.setText("步时：" + formatTime(stepTime));
         }
+        if (!gameClock.isFlagged(color)) return false;
+        boardPanel.repaint();
+        String colorStr = (color == PieceColor.BLACK) ? "黑棋" : "白棋";
+        endGame(color.opposite(), colorStr + "超时判负");
+        return true;
     }
 
     private String formatTime(long milliseconds) {
@@ -392,7 +414,7 @@ public class GameFrame extends JFrame {
                 moveNumber++;
 
                 logger.logMove(moveNumber, PieceColor.BLACK, row, col, -1, -1, stepTime, true);
-                updateTotalTime(PieceColor.BLACK, stepTime);
+                if (updateTotalTime(PieceColor.BLACK, stepTime)) return;
 
                 // 检查胜利（虽然第一步不可能赢）
                 if (board.checkWin(row, col, PieceColor.BLACK)) {
@@ -429,7 +451,7 @@ public class GameFrame extends JFrame {
                     long stepTime = System.currentTimeMillis() - currentStepStartTime;
                     moveNumber++;
                     logger.logMove(moveNumber, currentPlayer, row, col, -1, -1, stepTime, false);
-                    updateTotalTime(currentPlayer, stepTime);
+                    if (updateTotalTime(currentPlayer, stepTime)) return;
 
                     String colorStr = (currentPlayer == PieceColor.BLACK) ? "黑棋" : "白棋";
                     endGame(currentPlayer, colorStr + "六连获胜");
@@ -452,7 +474,7 @@ public class GameFrame extends JFrame {
 
                 logger.logMove(moveNumber, currentPlayer, firstClickRow, firstClickCol,
                         row, col, stepTime, false);
-                updateTotalTime(currentPlayer, stepTime);
+                if (updateTotalTime(currentPlayer, stepTime)) return;
 
                 // 检查胜利
                 if (board.checkWin(firstClickRow, firstClickCol, currentPlayer) ||
@@ -523,7 +545,7 @@ public class GameFrame extends JFrame {
             } else {
                 logger.logMove(moveNumber, aiColor, aiMove.getRow1(), aiMove.getCol1(), -1, -1, stepTime, false);
             }
-            updateTotalTime(aiColor, stepTime);
+            if (updateTotalTime(aiColor, stepTime)) return;
             boardPanel.repaint();
 
             String colorStr = (aiColor == PieceColor.BLACK) ? "黑棋" : "白棋";
@@ -535,7 +557,7 @@ public class GameFrame extends JFrame {
         if (aiMove.isFirstMove()) {
             moveNumber++;
             logger.logMove(moveNumber, aiColor, aiMove.getRow1(), aiMove.getCol1(), -1, -1, stepTime, true);
-            updateTotalTime(aiColor, stepTime);
+            if (updateTotalTime(aiColor, stepTime)) return;
             boardPanel.repaint();
 
             isFirstMoveOfGame = false;
@@ -551,7 +573,7 @@ public class GameFrame extends JFrame {
 
             logger.logMove(moveNumber, aiColor, aiMove.getRow1(), aiMove.getCol1(),
                     aiMove.getRow2(), aiMove.getCol2(), stepTime, false);
-            updateTotalTime(aiColor, stepTime);
+            if (updateTotalTime(aiColor, stepTime)) return;
 
             // 检查胜利
             if (board.checkWin(aiMove.getRow1(), aiMove.getCol1(), aiColor) ||
@@ -574,6 +596,7 @@ public class GameFrame extends JFrame {
     private void endGame(PieceColor winner, String reason) {
         gameOver = true;
         thinkingTimer.stop();
+        aiPlayer.stopPondering();
         logger.logGameEnd(winner, reason);
 
         statusLabel.setText("<html><center>游戏结束！<br/>" + reason + "</center></html>");
@@ -595,6 +618,7 @@ public class GameFrame extends JFrame {
 
     private void restartGame() {
         thinkingTimer.stop();
+        aiPlayer.stopPondering();
 
         int choice = JOptionPane.showConfirmDialog(this,
                 "选择先后手：\n是：你先手（黑棋）\n否：AI先手（黑棋）",
@@ -602,6 +626,7 @@ public class GameFrame extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         dispose();
+        aiPlayer.shutdown();
         SwingUtilities.invokeLater(() -> {
             GameFrame newFrame = new GameFrame(choice == JOptionPane.YES_OPTION);
             newFrame.setVisible(true);